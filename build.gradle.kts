@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.leycm"
@@ -27,4 +28,15 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
+}
+
+// ./gradlew jmh runs the benchmarks in src/jmh/java
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    warmup.set("1s")
+    resultFormat.set("TEXT")
 }
\ No newline at end of file
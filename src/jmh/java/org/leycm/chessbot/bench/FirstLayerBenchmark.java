@@ -0,0 +1,71 @@
+package org.leycm.chessbot.bench;
+
+import org.leycm.chessbot.chess.Perft;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Fen;
+import org.leycm.chessbot.chess.bitboard.MoveGenerator;
+import org.leycm.chessbot.chess.bitboard.MoveList;
+import org.leycm.chessbot.chess.bitboard.Piece;
+import org.leycm.chessbot.model.ChessModel;
+import org.leycm.chessbot.model.DenseLayer;
+import org.leycm.chessbot.model.FirstLayerAccumulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the model's first layer per position: computed from scratch by {@link DenseLayer#forward}
+ * versus kept up to date by a {@link FirstLayerAccumulator} while a move is made and taken back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FirstLayerBenchmark {
+
+    @Param({"start", "kiwipete", "position3"})
+    private String position;
+
+    private BitboardPosition board;
+    private DenseLayer firstLayer;
+    private FirstLayerAccumulator accumulator;
+    private double[] input;
+
+    private final MoveList moves = new MoveList();
+    private int moveIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Perft.Reference reference = Perft.REFERENCES.stream()
+                .filter(r -> r.name().equals(position))
+                .findFirst()
+                .orElseThrow();
+        board = new BitboardPosition();
+        Fen.load(board, reference.fen());
+        MoveGenerator.generateLegal(board, moves);
+
+        ChessModel model = new ChessModel();
+        firstLayer = model.getLayers()[0];
+        accumulator = new FirstLayerAccumulator(model);
+        accumulator.refresh(board);
+
+        input = new double[model.getInputSize()];
+        for (int square = 0; square < 64; square++) {
+            input[square] = Piece.signedLevel(board.pieceAt(square)) / 10.0;
+        }
+        input[64] = board.isWhiteToMove() ? 0.1 : 0;
+    }
+
+    @Benchmark
+    public double[] forward() {
+        return firstLayer.forward(input);
+    }
+
+    @Benchmark
+    public double[] makeUnmake() {
+        accumulator.makeMove(board, moves.get(moveIndex));
+        double[] values = accumulator.values();
+        accumulator.unmakeMove(board);
+        moveIndex = moveIndex + 1 == moves.size() ? 0 : moveIndex + 1;
+        return values;
+    }
+}
@@ -0,0 +1,94 @@
+package org.leycm.chessbot.bench;
+
+import org.leycm.chessbot.chess.ChessBoard;
+import org.leycm.chessbot.chess.ChessMove;
+import org.leycm.chessbot.chess.Perft;
+import org.leycm.chessbot.chess.bitboard.Bitboards;
+import org.leycm.chessbot.chess.bitboard.Fen;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the move generation paths, one operation being one position ("node").
+ * The reported ops/s are therefore nodes per second; {@link #perft} reports them through its
+ * {@code nodes} counter because one invocation visits a whole tree.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoveGenerationBenchmark {
+
+    @Param({"start", "kiwipete", "position3"})
+    private String position;
+
+    private ChessBoard board;
+
+    private ChessBoard shuffleBoard;
+    private ChessMove[] shuffleMoves;
+    private int shuffleIndex;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class NodeCounter {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setupBoard() {
+        Perft.Reference reference = Perft.REFERENCES.stream()
+                .filter(r -> r.name().equals(position))
+                .findFirst()
+                .orElseThrow();
+        board = ChessBoard.fromFen(reference.fen());
+    }
+
+    /**
+     * movePiece appends to the move history, so the board is reset every iteration
+     * and the knights shuffle back and forth in between.
+     */
+    @Setup(Level.Iteration)
+    public void setupShuffle() {
+        shuffleBoard = ChessBoard.fromFen(Fen.START_POSITION);
+        shuffleMoves = new ChessMove[]{
+                new ChessMove(6, 7, 5, 5, shuffleBoard),
+                new ChessMove(6, 0, 5, 2, shuffleBoard),
+                new ChessMove(5, 5, 6, 7, shuffleBoard),
+                new ChessMove(5, 2, 6, 0, shuffleBoard)
+        };
+        shuffleIndex = 0;
+    }
+
+    @Benchmark
+    public int getValidMoves() {
+        int count = 0;
+        for (long own = board.getPosition().occupancy(board.isWhiteTurn()); own != 0; own = Bitboards.withoutFirst(own)) {
+            int square = Bitboards.first(own);
+            count += board.getValidMoves(Bitboards.x(square), Bitboards.y(square)).length;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public boolean isKingInCheck() {
+        return board.isKingInCheck(board.isWhiteTurn());
+    }
+
+    @Benchmark
+    public void movePiece() {
+        shuffleBoard.movePiece(shuffleMoves[shuffleIndex]);
+        shuffleIndex = (shuffleIndex + 1) & 3;
+    }
+
+    @Benchmark
+    public long perft(NodeCounter counter) {
+        long nodes = Perft.perft(board, 3);
+        counter.nodes += nodes;
+        return nodes;
+    }
+}
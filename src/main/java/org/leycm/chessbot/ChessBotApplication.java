@@ -5,6 +5,7 @@ import org.leycm.chessbot.chess.ChessBoard;
 import org.leycm.chessbot.chess.ChessController;
 import org.leycm.chessbot.chess.controller.VirtualUiController;
 import org.leycm.chessbot.jframe.ChessBoardUi;
+import org.leycm.chessbot.model.ModelLoader;
 
 import java.time.LocalTime;
 import java.util.Random;
@@ -125,6 +126,7 @@ public class ChessBotApplication {
         for (String arg : args) {
             if (arg.startsWith("-type=")) type = arg.replace("-type=", "");
             if (arg.startsWith("-runtime=")) runtime = Long.parseLong(arg.replace("-runtime=", ""));
+            if (arg.startsWith("-threads=")) ModelLoader.setEngineThreads(Integer.parseInt(arg.replace("-threads=", "")));
         }
 
         switch (type) {
@@ -0,0 +1,78 @@
+package org.leycm.chessbot.chess;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list that only grows at the end, with O(1) immutable {@link #view views} of its current contents.
+ * <p>
+ * A view shares the backing array and only covers the elements that existed when it was taken. Appending
+ * writes behind every earlier view, and {@link #clear} starts a new array instead of overwriting the old
+ * one, so a view never changes once it is taken. A view published through a volatile field may therefore be
+ * read by other threads while the owner keeps appending.
+ */
+final class AppendOnlyList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+    private Object[] elements = new Object[16];
+    private int size;
+
+    @Override
+    public boolean add(E element) {
+        if (size == elements.length) elements = Arrays.copyOf(elements, size * 2);
+        elements[size++] = element;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        elements = new Object[16];
+        size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return an unmodifiable list of the elements appended so far, which later appends do not change
+     */
+    public @NotNull List<E> view() {
+        return new View<>(elements, size);
+    }
+
+    private static final class View<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+        private final Object[] elements;
+        private final int size;
+
+        private View(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
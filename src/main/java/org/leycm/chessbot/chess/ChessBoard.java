@@ -4,24 +4,40 @@ import lombok.Getter;
 import lombok.Setter;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Bitboards;
+import org.leycm.chessbot.chess.bitboard.Fen;
+import org.leycm.chessbot.chess.bitboard.Move;
+import org.leycm.chessbot.chess.bitboard.MoveGenerator;
+import org.leycm.chessbot.chess.bitboard.MoveList;
+import org.leycm.chessbot.chess.bitboard.Piece;
+import org.leycm.chessbot.chess.bitboard.PositionSnapshot;
 import org.leycm.chessbot.chess.controller.SensorController;
 import org.leycm.chessbot.chess.controller.VirtualAiController;
 import org.leycm.chessbot.chess.controller.VirtualUiController;
 import org.leycm.chessbot.chess.pieces.*;
 
 import javax.swing.Timer;
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
-import java.util.stream.IntStream;
 
 public class ChessBoard implements Serializable {
 
-    private final ChessPiece[][] board = new ChessPiece[8][8];
-    private final List<ChessMove> moveHistory = new ArrayList<>();
+    @Getter private final BitboardPosition position = new BitboardPosition();
+    private final MoveList legalMoves = new MoveList();
+    private boolean legalMovesValid;
+    private long legalMovesKey;
+    private final MoveList pieceMoves = new MoveList();
+    private final AppendOnlyList<ChessMove> moveHistory = new AppendOnlyList<>();
+    private final AppendOnlyList<PositionSnapshot> snapshots = new AppendOnlyList<>();
+    private final StringBuilder fenBuffer = new StringBuilder(90);
     @Getter private final Consumer<ChessBoard> startingOder;
 
-    @Getter @Setter private boolean whiteTurn;
     @Getter private ChessBoard.State state = State.START;
 
 
@@ -30,6 +46,16 @@ public class ChessBoard implements Serializable {
 
     @Getter private ChessController lastGameWinner = null;
 
+    private transient volatile GameActor actor;
+    private transient volatile boolean disposed;
+    private transient Timer tickTimer;
+    private final AtomicBoolean tickQueued = new AtomicBoolean();
+    @Getter private volatile GameSnapshot gameSnapshot;
+    private long version;
+    private int editDepth;
+    private ChessMove appliedMove;
+    private final List<ChessBoardListener> listeners = new CopyOnWriteArrayList<>();
+
     public enum State implements Serializable {
         START,
         PLAYING,
@@ -45,63 +71,145 @@ public class ChessBoard implements Serializable {
     public ChessBoard(ChessController whiteController, ChessController blackController) {
         this(board -> {
             for (int x = 0; x < 8; x++) {
-                board.placePiece(new PawnChessPiece(false, board), x, 1);
-                board.placePiece(new PawnChessPiece(true, board), x, 6);
+                board.placePiece(PawnChessPiece.of(false), x, 1);
+                board.placePiece(PawnChessPiece.of(true), x, 6);
             }
 
-            board.placePiece(new RookChessPiece(false, board), 0, 0);
-            board.placePiece(new KnightChessPiece(false, board), 1, 0);
-            board.placePiece(new BishopChessPiece(false, board), 2, 0);
-            board.placePiece(new KingChessPiece(false, board), 3, 0);
-            board.placePiece(new QueenChessPiece(false, board), 4, 0);
-            board.placePiece(new BishopChessPiece(false, board), 5, 0);
-            board.placePiece(new KnightChessPiece(false, board), 6, 0);
-            board.placePiece(new RookChessPiece(false, board), 7, 0);
-
-            board.placePiece(new RookChessPiece(true, board), 0, 7);
-            board.placePiece(new KnightChessPiece(true, board), 1, 7);
-            board.placePiece(new BishopChessPiece(true, board), 2, 7);
-            board.placePiece(new KingChessPiece(true, board), 3, 7);
-            board.placePiece(new QueenChessPiece(true, board), 4, 7);
-            board.placePiece(new BishopChessPiece(true, board), 5, 7);
-            board.placePiece(new KnightChessPiece(true, board), 6, 7);
-            board.placePiece(new RookChessPiece(true, board), 7, 7);
+            board.placePiece(RookChessPiece.of(false), 0, 0);
+            board.placePiece(KnightChessPiece.of(false), 1, 0);
+            board.placePiece(BishopChessPiece.of(false), 2, 0);
+            board.placePiece(QueenChessPiece.of(false), 3, 0);
+            board.placePiece(KingChessPiece.of(false), 4, 0);
+            board.placePiece(BishopChessPiece.of(false), 5, 0);
+            board.placePiece(KnightChessPiece.of(false), 6, 0);
+            board.placePiece(RookChessPiece.of(false), 7, 0);
+
+            board.placePiece(RookChessPiece.of(true), 0, 7);
+            board.placePiece(KnightChessPiece.of(true), 1, 7);
+            board.placePiece(BishopChessPiece.of(true), 2, 7);
+            board.placePiece(QueenChessPiece.of(true), 3, 7);
+            board.placePiece(KingChessPiece.of(true), 4, 7);
+            board.placePiece(BishopChessPiece.of(true), 5, 7);
+            board.placePiece(KnightChessPiece.of(true), 6, 7);
+            board.placePiece(RookChessPiece.of(true), 7, 7);
+
+            board.getPosition().setCastlingRights(BitboardPosition.ALL_CASTLING);
         }, whiteController, blackController);
     }
 
     public ChessBoard(@NotNull Consumer<ChessBoard> startingOder, ChessController whiteController, ChessController blackController) {
         this.startingOder = startingOder;
-        this.whiteTurn = true;
+        setWhiteTurn(true);
 
         this.whiteController = whiteController;
         this.blackController = blackController;
         start();
     }
 
+    /**
+     * A board that starts (and restarts) from the position described by a FEN string.
+     * @throws IllegalArgumentException if the text is not a valid FEN
+     */
+    public static @NotNull ChessBoard fromFen(@NotNull String fen, ChessController whiteController, ChessController blackController) {
+        return new ChessBoard(board -> board.loadFen(fen), whiteController, blackController);
+    }
+
+    public static @NotNull ChessBoard fromFen(@NotNull String fen) {
+        return fromFen(fen, null, null);
+    }
+
     @Deprecated @ApiStatus.Internal
     public void autoTick() {
-        new Timer(20, _ -> tick()).start();
+        if (tickTimer == null) tickTimer = new Timer(20, _ -> tick());
+        tickTimer.start();
+    }
+
+    /**
+     * Discards the board: stops the {@link #autoTick()} timer and the {@link GameActor}, if they were started.
+     * A board that ever submitted work keeps its writer thread until this is called. Commands submitted
+     * afterwards are dropped.
+     */
+    public void dispose() {
+        if (tickTimer != null) tickTimer.stop();
+
+        GameActor current;
+        synchronized (this) {
+            disposed = true;
+            current = actor;
+        }
+        if (current != null) current.stop();
     }
 
+    /**
+     * Lets the controller whose turn it is act. Runs on the board's {@link GameActor}, so it can be
+     * called from any thread; ticks that arrive while one is still queued are dropped.
+     */
     public void tick() {
-        if (state != State.PLAYING) return;
+        if (!tickQueued.compareAndSet(false, true)) return;
 
-        if (whiteTurn) {
-            whiteController.tick(this);
-        } else {
-            blackController.tick(this);
-        }
+        submit(board -> {
+            board.tickQueued.set(false);
+            if (board.state != State.PLAYING) return;
+
+            if (board.isWhiteTurn()) {
+                board.whiteController.tick(board);
+            } else {
+                board.blackController.tick(board);
+            }
+        });
     }
 
 
     public void sensorTick(boolean[] sensorFeedback) { // for latter impl with sensors
-        if (state != State.PLAYING) return;
+        submit(board -> {
+            if (board.state != State.PLAYING) return;
 
-        if (whiteTurn && whiteController instanceof SensorController sensorController) {
-            sensorController.sensorTick(sensorFeedback, this);
-        } else if (blackController instanceof SensorController sensorController) {
-            sensorController.sensorTick(sensorFeedback, this);
+            if (board.isWhiteTurn() && board.whiteController instanceof SensorController sensorController) {
+                sensorController.sensorTick(sensorFeedback, board);
+            } else if (board.blackController instanceof SensorController sensorController) {
+                sensorController.sensorTick(sensorFeedback, board);
+            }
+        });
+    }
+
+    /**
+     * The single writer of this board, started on first use. Boards that are only used from one
+     * thread (training, perft, tests) never start one.
+     */
+    public @NotNull GameActor getActor() {
+        GameActor current = actor;
+        if (current == null) {
+            synchronized (this) {
+                current = actor;
+                if (current == null) {
+                    actor = current = new GameActor(this, "chess-board-" + Integer.toHexString(System.identityHashCode(this)));
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Queues a change on the board's {@link GameActor}. Use this instead of calling
+     * {@link #movePiece}, {@link #restart} and friends directly whenever the board is shared between threads.
+     */
+    public void submit(@NotNull Consumer<ChessBoard> command) {
+        if (disposed && actor == null) {
+            System.out.println("The board was disposed and does not accept commands anymore");
+            return;
         }
+        getActor().submit(command);
+    }
+
+    /**
+     * Registers a listener for the events of this board. Can be called from any thread.
+     */
+    public void addListener(@NotNull ChessBoardListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NotNull ChessBoardListener listener) {
+        listeners.remove(listener);
     }
 
     public void start() {
@@ -110,31 +218,105 @@ public class ChessBoard implements Serializable {
     }
 
     public void restart() {
-        clear();
-
-        this.whiteTurn = true;
-        this.state = State.PLAYING;
-        this.startingOder.accept(this);
+        beginEdit();
+        try {
+            clear();
+
+            setWhiteTurn(true);
+            this.state = State.PLAYING;
+            this.startingOder.accept(this);
+        } finally {
+            endEdit();
+        }
     }
 
     public void clear() {
 
         moveHistory.clear();
+        snapshots.clear();
 
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                board[row][col] = null;
-            }
-        }
+        position.clear();
+        legalMovesValid = false;
 
+        changed();
     }
 
     public void placePiece(ChessPiece piece, int x, int y) {
-        if (isValidCoord(x, y)) {
-            board[y][x] = piece;
+        if (!isValidCoord(x, y)) return;
+
+        int square = Bitboards.square(x, y);
+        if (piece == null) {
+            position.remove(square);
+        } else {
+            position.put(piece.getCode(), square);
+        }
+        legalMovesValid = false;
+
+        changed();
+    }
+
+    /**
+     * Replaces the pieces and game state with the position described by a FEN string.
+     * @throws IllegalArgumentException if the text is not a valid FEN
+     */
+    public void loadFen(@NotNull String fen) {
+        beginEdit();
+        try {
+            clear();
+            Fen.load(position, fen);
+        } finally {
+            endEdit();
         }
     }
 
+    /**
+     * Writes the FEN of the current position, including castling rights, en passant square and both clocks.
+     * Nothing is allocated, so this can be called for every position sent to an engine.
+     */
+    public void toFen(@NotNull Appendable out) throws IOException {
+        Fen.write(position, out);
+    }
+
+    public @NotNull String toFen() {
+        fenBuffer.setLength(0);
+        try {
+            toFen(fenBuffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder does not throw
+        }
+        return fenBuffer.toString();
+    }
+
+    /**
+     * A packed copy of the current position, e.g. to return to it later with {@link #restore}.
+     */
+    public @NotNull PositionSnapshot snapshot() {
+        return PositionSnapshot.of(position);
+    }
+
+    /**
+     * Replaces the pieces and game state with a snapshot. The move history is cleared.
+     */
+    public void restore(@NotNull PositionSnapshot snapshot) {
+        beginEdit();
+        try {
+            clear();
+            snapshot.restoreTo(position);
+        } finally {
+            endEdit();
+        }
+    }
+
+    /**
+     * The position after the first {@code ply} moves of the history, {@code 0} being the position
+     * the first move was played from.
+     * @return the snapshot, or null if no move was played yet or {@code ply} is out of range
+     */
+    public PositionSnapshot getSnapshotAt(int ply) {
+        if (ply < 0 || ply >= snapshots.size()) return null;
+        return snapshots.get(ply);
+    }
+
     public void movePiece(int fromX, int fromY, int toX, int toY) {
         movePiece(new ChessMove(fromX, fromY, toX, toY, this));
     }
@@ -150,47 +332,102 @@ public class ChessBoard implements Serializable {
             return;
         }
 
-        ChessPiece piece = board[move.getFromY()][move.getFromX()];
+        ChessPiece piece = getPiece(move.getFromX(), move.getFromY());
         if (piece == null) return;
 
-        if (!piece.isValidMove(move.getToX(), move.getToY())) {
-            System.out.println(piece.getName() + " can move to " + Arrays.deepToString(piece.getValidFields()) + " not to [" + move.getToX() + ", " + move.getToY() + "]");
+        int legalMove = findLegalMove(move);
+        if (legalMove == Move.NONE) {
+            if (!isValidMove(move.getFromX(), move.getFromY(), move.getToX(), move.getToY())) {
+                System.out.println(piece.getName() + " can move to " + Arrays.deepToString(getValidFields(move.getFromX(), move.getFromY())) + " not to [" + move.getToX() + ", " + move.getToY() + "]");
+            } else {
+                System.out.println("Move ist illegal: King in chess!");
+            }
             return;
         }
 
-        if (!isMoveLegalRegardingCheck(move)) {
-            System.out.println("Move ist illegal: King in chess!");
-            return;
+        move.resolveDisambiguation();
+        if (moveHistory.isEmpty()) {
+            snapshots.clear();
+            snapshots.add(snapshot());
         }
 
-
-
-        board[move.getToY()][move.getToX()] = piece;
-        board[move.getFromY()][move.getFromX()] = null;
+        makeMove(legalMove);
 
         moveHistory.add(move);
+        snapshots.add(snapshot());
 
-        piece.hasMovedYet = true;
+        checkGameEnd();
+        appliedMove = move;
+        changed();
+    }
+
+    /**
+     * Plays a packed {@link Move} on the board without any validation, history entry or game-end check.
+     * Every call must be matched by {@link #unmakeMove()} before the board is used as a game again.
+     */
+    public void makeMove(int move) {
+        position.makeMove(move);
+        legalMovesValid = false;
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove(int)}.
+     */
+    public void unmakeMove() {
+        position.unmakeMove();
+        legalMovesValid = false;
+    }
+
+    /**
+     * Packs a {@link ChessMove} for this position, deriving its flag from the piece that moves:
+     * double pawn pushes, en passant, castling and promotions (to a queen unless the move names another piece).
+     */
+    public int toPackedMove(@NotNull ChessMove move) {
+        int from = Bitboards.square(move.getFromX(), move.getFromY());
+        int to = Bitboards.square(move.getToX(), move.getToY());
+        int type = Piece.type(position.pieceAt(from));
+
+        if (type == Piece.PAWN) {
+            if (to == position.getEnPassantSquare() && move.getFromX() != move.getToX()) {
+                return Move.of(from, to, Move.EN_PASSANT);
+            }
+            if (move.getToY() == 0 || move.getToY() == 7) {
+                return Move.promotion(from, to, promotionType(move.getPromotionPiece()));
+            }
+            if (Math.abs(move.getToY() - move.getFromY()) == 2) {
+                return Move.of(from, to, Move.DOUBLE_PUSH);
+            }
+        } else if (type == Piece.KING && Math.abs(move.getToX() - move.getFromX()) == 2) {
+            return Move.of(from, to, Move.CASTLING);
+        }
 
-        whiteTurn = !whiteTurn;
+        return Move.of(from, to);
+    }
 
-        checkGameEnd();
+    private static int promotionType(char promotionPiece) {
+        return switch (Character.toUpperCase(promotionPiece)) {
+            case 'N' -> Piece.KNIGHT;
+            case 'B' -> Piece.BISHOP;
+            case 'R' -> Piece.ROOK;
+            default -> Piece.QUEEN;
+        };
     }
 
     public boolean isMoveLegalRegardingCheck(@NotNull ChessMove move) {
+        return findLegalMove(move) != Move.NONE;
+    }
 
-        ChessPiece movingPiece = board[move.getFromY()][move.getFromX()];
-        ChessPiece capturedPiece = board[move.getToY()][move.getToX()];
-
-        board[move.getToY()][move.getToX()] = movingPiece;
-        board[move.getFromY()][move.getFromX()] = null;
-
-        boolean isLegal = !isKingInCheck(movingPiece.isWhite());
-
-        board[move.getFromY()][move.getFromX()] = movingPiece;
-        board[move.getToY()][move.getToX()] = capturedPiece;
+    /**
+     * Looks a move up among the legal moves of the piece it starts from.
+     * @return the generated packed move, or {@link Move#NONE} if the move is not legal
+     */
+    private int findLegalMove(@NotNull ChessMove move) {
+        int from = Bitboards.square(move.getFromX(), move.getFromY());
+        int piece = position.pieceAt(from);
+        if (piece == Piece.NONE) return Move.NONE;
 
-        return isLegal;
+        generateLegalMoves(Piece.isWhite(piece), Bitboards.bit(from), pieceMoves);
+        return pieceMoves.find(toPackedMove(move));
     }
 
     public boolean isAiTurn() {
@@ -198,68 +435,114 @@ public class ChessBoard implements Serializable {
                 getControllerForTurn() instanceof VirtualAiController; // for SensorAiController
     }
 
-    public boolean isKingInCheck(boolean whiteKing) {
-        int kingX = -1, kingY = -1;
-        for (int y = 0; y < 8; y++) {
-            for (int x = 0; x < 8; x++) {
-                ChessPiece piece = board[y][x];
-                if (piece instanceof KingChessPiece && piece.isWhite() == whiteKing) {
-                    kingX = x;
-                    kingY = y;
-                    break;
-                }
-            }
-            if (kingX != -1) break;
-        }
-
-        if (kingX == -1) return false;
-
-        for (int y = 0; y < 8; y++) {
-            for (int x = 0; x < 8; x++) {
-                ChessPiece piece = board[y][x];
-                if (piece != null && piece.isWhite() != whiteKing) {
-                    if (piece.isValidMove(kingX, kingY)) {
-                        return true;
-                    }
-                }
-            }
-        }
+    /**
+     * Like {@link #isAiTurn()}, but for the side to move in a published snapshot, so it is safe to call from any thread.
+     */
+    public boolean isAiTurn(@NotNull GameSnapshot snapshot) {
+        return (snapshot.isWhiteTurn() ? whiteController : blackController) instanceof VirtualAiController;
+    }
 
-        return false;
+    public boolean isKingInCheck(boolean whiteKing) {
+        return position.isInCheck(whiteKing);
     }
 
     public ChessController getControllerForTurn() {
-        if (whiteTurn) return whiteController;
+        if (isWhiteTurn()) return whiteController;
         return blackController;
     }
 
     public ChessPiece getPiece(int x, int y) {
         if (!isValidCoord(x, y)) return null;
-        return board[y][x];
+        return ChessPiece.of(position.pieceAt(Bitboards.square(x, y)));
     }
 
-    public int getXForPiece(UUID uuid) {
-        for (int y = 0; y < 8; y++) {
-            for (int x = 0; x < 8; x++) {
-                ChessPiece piece = board[y][x];
-                if (piece != null && piece.uuid.equals(uuid)) {
-                    return x;
-                }
-            }
+    /**
+     * The pieces of one side, ordered by square from a8 to h1. The pieces are shared flyweights and
+     * do not know their square; use {@link #getPieceArray()} or {@link #getPiece} where it matters.
+     */
+    public List<ChessPiece> getPieces(boolean white) {
+        long occupancy = position.occupancy(white);
+        List<ChessPiece> result = new ArrayList<>(Bitboards.count(occupancy));
+        for (; occupancy != 0; occupancy = Bitboards.withoutFirst(occupancy)) {
+            result.add(ChessPiece.of(position.pieceAt(Bitboards.first(occupancy))));
         }
-        return -1; 
+        return result;
     }
 
-    public int getYForPiece(UUID uuid) {
-        for (int y = 0; y < 8; y++) {
-            for (int x = 0; x < 8; x++) {
-                ChessPiece piece = board[y][x];
-                if (piece != null && piece.uuid.equals(uuid)) {
-                    return y;
-                }
-            }
+    /**
+     * The legal moves of the piece on a square; empty if the square is empty.
+     */
+    public ChessMove[] getValidMoves(int x, int y) {
+        if (!isValidCoord(x, y) || position.pieceAt(Bitboards.square(x, y)) == Piece.NONE) return new ChessMove[0];
+
+        int square = Bitboards.square(x, y);
+        MoveList moves = new MoveList();
+        generateLegalMoves(Piece.isWhite(position.pieceAt(square)), Bitboards.bit(square), moves);
+
+        ChessMove[] result = new ChessMove[moves.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ChessMove.fromPacked(moves.get(i), this);
         }
-        return -1; 
+        return result;
+    }
+
+    /**
+     * The fields the piece on a square can reach by its movement rules, as {x, y} pairs,
+     * without checking whether the move would leave its king in check.
+     */
+    public int[][] getValidFields(int x, int y) {
+        long targets = getTargets(x, y);
+        int[][] fields = new int[Bitboards.count(targets)][];
+        for (int i = 0; targets != 0; i++, targets = Bitboards.withoutFirst(targets)) {
+            int square = Bitboards.first(targets);
+            fields[i] = new int[]{Bitboards.x(square), Bitboards.y(square)};
+        }
+        return fields;
+    }
+
+    /**
+     * Whether the piece on the first square can reach the second by its movement rules,
+     * without checking whether the move would leave its king in check.
+     */
+    public boolean isValidMove(int fromX, int fromY, int toX, int toY) {
+        return isValidCoord(toX, toY) && Bitboards.contains(getTargets(fromX, fromY), Bitboards.square(toX, toY));
+    }
+
+    /**
+     * Reached from the UI thread as well, so it uses its own move list; {@link #pieceMoves} belongs to the writer.
+     */
+    private long getTargets(int x, int y) {
+        if (!isValidCoord(x, y)) return 0L;
+
+        int square = Bitboards.square(x, y);
+        int piece = position.pieceAt(square);
+        if (piece == Piece.NONE) return 0L;
+
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(position, Piece.isWhite(piece), Bitboards.bit(square), moves);
+        long targets = 0L;
+        for (int i = 0; i < moves.size(); i++) {
+            targets |= Bitboards.bit(Move.to(moves.get(i)));
+        }
+        return targets;
+    }
+
+    public boolean isWhiteTurn() {
+        return position.isWhiteToMove();
+    }
+
+    public void setWhiteTurn(boolean whiteTurn) {
+        position.setWhiteToMove(whiteTurn);
+        legalMovesValid = false;
+
+        changed();
+    }
+
+    /**
+     * The Zobrist key of the current position, updated incrementally by every move.
+     */
+    public long getHashKey() {
+        return position.getHashKey();
     }
 
     public boolean isValidCoord(int x, int y) {
@@ -271,46 +554,52 @@ public class ChessBoard implements Serializable {
     }
 
     public ChessPiece[][] getPieceBoard() {
-        return board;
+        ChessPiece[][] result = new ChessPiece[8][8];
+        for (int square = 0; square < 64; square++) {
+            result[Bitboards.y(square)][Bitboards.x(square)] = ChessPiece.of(position.pieceAt(square));
+        }
+        return result;
     }
 
     public int[][] getLevelBoard() {
-        return new int[][]{Arrays.stream(board)
-                .mapToInt(row -> Arrays.stream(row)
-                        .mapToInt(p -> p == null ? 0 : p.getLevel() * (p.isWhite() ? 1 : -1)).sum())
-                .toArray()};
+        int[] rows = new int[8];
+        for (int square = 0; square < 64; square++) {
+            rows[Bitboards.y(square)] += Piece.signedLevel(position.pieceAt(square));
+        }
+        return new int[][]{rows};
     }
 
     public boolean[][] getNotNullBoard() {
         boolean[][] result = new boolean[8][8];
-        for (int row = 0; row < board.length; row++) {
-            for (int col = 0; col < board[row].length; col++) {
-                result[row][col] = board[row][col] != null;
-            }
+        long occupied = position.occupied();
+        for (int square = 0; square < 64; square++) {
+            result[Bitboards.y(square)][Bitboards.x(square)] = Bitboards.contains(occupied, square);
         }
         return result;
     }
 
     public ChessPiece[] getPieceArray() {
-        return Arrays.stream(board)
-                .flatMap(Arrays::stream)
-                .toArray(ChessPiece[]::new);
+        ChessPiece[] result = new ChessPiece[64];
+        for (int square = 0; square < 64; square++) {
+            result[square] = ChessPiece.of(position.pieceAt(square));
+        }
+        return result;
     }
 
     public int[] getLevelArray() {
-        return Arrays.stream(board)
-                .flatMapToInt(row -> Arrays.stream(row)
-                        .mapToInt(p -> p == null ? 0 : p.getLevel() * (p.isWhite() ? 1 : -1)))
-                .toArray();
+        int[] result = new int[64];
+        for (int square = 0; square < 64; square++) {
+            result[square] = Piece.signedLevel(position.pieceAt(square));
+        }
+        return result;
     }
 
     public boolean[] getNotNullArray() {
         boolean[] result = new boolean[64];
-        int[] level = getLevelArray();
-
-        IntStream.range(0, result.length)
-                .mapToObj(i -> result[i] = level[1] != 0);
-
+        long occupied = position.occupied();
+        for (int square = 0; square < 64; square++) {
+            result[square] = Bitboards.contains(occupied, square);
+        }
         return result;
     }
 
@@ -319,28 +608,91 @@ public class ChessBoard implements Serializable {
         int[] level = getLevelArray();
 
         System.arraycopy(level, 0, result, 0, level.length);
-        result[64] = whiteTurn ? 1 : 0;
+        result[64] = isWhiteTurn() ? 1 : 0;
         return result;
     }
 
-    public List<ChessPiece> getPieces(boolean white) {
-        List<ChessPiece> pieces = new ArrayList<>();
-        for (int y = 0; y < 8; y++) {
-            for (int x = 0; x < 8; x++) {
-                ChessPiece piece = board[y][x];
-                if (piece != null && piece.isWhite() == white) {
-                    pieces.add(piece);
-                }
+    /**
+     * The legal moves of the side to move. They are generated once per position and shared by every
+     * caller until the board changes; the returned list must not be modified.
+     */
+    public @NotNull MoveList getLegalMoves() {
+        if (!legalMovesValid || legalMovesKey != position.getHashKey()) {
+            MoveGenerator.generateLegal(position, legalMoves);
+            legalMovesKey = position.getHashKey();
+            legalMovesValid = true;
+        }
+        return legalMoves;
+    }
+
+    /**
+     * Fills {@code moves} with the legal moves of one color, limited to pieces standing on {@code fromMask}.
+     * Moves of the side to move are taken from {@link #getLegalMoves()}.
+     */
+    public void generateLegalMoves(boolean white, long fromMask, @NotNull MoveList moves) {
+        if (white != isWhiteTurn()) {
+            MoveGenerator.generateLegal(position, white, fromMask, moves);
+            return;
+        }
+
+        MoveList cached = getLegalMoves();
+        if (fromMask == Bitboards.ALL) {
+            moves.copyFrom(cached);
+            return;
+        }
+
+        moves.clear();
+        for (int i = 0; i < cached.size(); i++) {
+            int move = cached.get(i);
+            if (Bitboards.contains(fromMask, Move.from(move))) moves.add(move);
+        }
+    }
+
+    private void beginEdit() {
+        editDepth++;
+    }
+
+    private void endEdit() {
+        editDepth--;
+        changed();
+    }
+
+    /**
+     * Publishes a new {@link GameSnapshot} unless the change is part of a larger edit (a restart places
+     * every piece one by one), which publishes once when it is done, and tells the listeners what changed.
+     * Moves played with {@link #makeMove(int)} are never published.
+     */
+    private void changed() {
+        if (editDepth > 0) return;
+
+        GameSnapshot previous = gameSnapshot;
+        GameSnapshot snapshot = new GameSnapshot(++version, snapshot(), state, moveHistory.view(), snapshots.view());
+        gameSnapshot = snapshot;
+
+        ChessMove move = appliedMove;
+        appliedMove = null;
+        if (listeners.isEmpty()) return;
+
+        fire(move != null ? new ChessBoardEvent.MoveApplied(snapshot, move) : new ChessBoardEvent.Restarted(snapshot));
+        if (previous != null && previous.state() != state) {
+            fire(new ChessBoardEvent.StateChanged(snapshot, previous.state()));
+        }
+    }
+
+    private void fire(ChessBoardEvent event) {
+        for (ChessBoardListener listener : listeners) {
+            try {
+                listener.onEvent(event);
+            } catch (RuntimeException e) {
+                System.out.println("Listener failed on " + event.getClass().getSimpleName() + ": " + e);
             }
         }
-        return pieces;
     }
 
     private void checkGameEnd() {
+        boolean whiteTurn = isWhiteTurn();
         boolean currentPlayerInCheck = isKingInCheck(whiteTurn);
-        List<ChessMove> validMoves = getAllValidMoves(whiteTurn);
-
-        if (!validMoves.isEmpty()) return;
+        if (!getLegalMoves().isEmpty()) return;
 
         if (currentPlayerInCheck) {
             if (whiteTurn) {
@@ -359,15 +711,6 @@ public class ChessBoard implements Serializable {
         }
     }
 
-    private @NotNull List<ChessMove> getAllValidMoves(boolean white) {
-        List<ChessMove> validMoves = new ArrayList<>();
-        for (ChessPiece piece : getPieces(white)) {
-            validMoves.addAll(Arrays.asList(piece.getValidMoves()));
-        }
-
-        return validMoves;
-    }
-
     public String toVisualString() {
         StringBuilder sb = new StringBuilder();
 
@@ -376,7 +719,7 @@ public class ChessBoard implements Serializable {
             sb.append(rowLabel).append("  ");
 
             for (int x = 0; x < 8; x++) {
-                ChessPiece piece = board[y][x];
+                ChessPiece piece = getPiece(x, y);
                 sb.append(piece != null ? piece.getColorChar() : '.').append("  ");
             }
             sb.append("\n");
@@ -0,0 +1,28 @@
+package org.leycm.chessbot.chess;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Something that happened on a {@link ChessBoard}, delivered to its {@link ChessBoardListener}s.
+ * Every event carries the snapshot published with the change, so listeners never need to read the live board.
+ */
+public sealed interface ChessBoardEvent {
+
+    @NotNull GameSnapshot snapshot();
+
+    /**
+     * A move was played; it is the last entry of {@code snapshot.moves()}.
+     */
+    record MoveApplied(@NotNull GameSnapshot snapshot, @NotNull ChessMove move) implements ChessBoardEvent {}
+
+    /**
+     * The game state changed, e.g. from {@code PLAYING} to a checkmate. The new state is {@code snapshot.state()}.
+     */
+    record StateChanged(@NotNull GameSnapshot snapshot, @NotNull ChessBoard.State previous) implements ChessBoardEvent {}
+
+    /**
+     * The board content was replaced or edited outside of normal play (restart, FEN, snapshot restore,
+     * placing pieces). Listeners should redraw everything.
+     */
+    record Restarted(@NotNull GameSnapshot snapshot) implements ChessBoardEvent {}
+}
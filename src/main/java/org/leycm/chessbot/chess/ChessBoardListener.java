@@ -0,0 +1,12 @@
+package org.leycm.chessbot.chess;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the {@link ChessBoardEvent}s of a board. Events are delivered on the thread that changed the
+ * board (its {@link GameActor} for shared boards), in order; UI listeners hand them over to their own thread.
+ */
+@FunctionalInterface
+public interface ChessBoardListener {
+    void onEvent(@NotNull ChessBoardEvent event);
+}
@@ -1,13 +1,20 @@
 package org.leycm.chessbot.chess;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.leycm.chessbot.chess.bitboard.Bitboards;
+import org.leycm.chessbot.chess.bitboard.Move;
+import org.leycm.chessbot.chess.bitboard.MoveList;
+import org.leycm.chessbot.chess.bitboard.Piece;
 import org.leycm.chessbot.chess.pieces.PawnChessPiece;
 
 import java.io.Serializable;
-import java.util.Arrays;
-import java.util.List;
 
 @Data
 public class ChessMove implements Serializable {
@@ -22,6 +29,10 @@ public class ChessMove implements Serializable {
 
     private final ChessBoard board;
 
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude @ToString.Exclude
+    private String disambiguation;
+
     public ChessMove(int fromX, int fromY, int toX, int toY, @NotNull ChessBoard board) {
         this(fromX, fromY, toX, toY, board, false, '\0', false, false);
     }
@@ -44,6 +55,20 @@ public class ChessMove implements Serializable {
         this.board = board;
     }
 
+    /**
+     * Creates the API-level move for a packed {@link Move} on the given board, before it is played.
+     */
+    public static @NotNull ChessMove fromPacked(int move, @NotNull ChessBoard board) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flag = Move.flag(move);
+        boolean promotion = flag == Move.PROMOTION;
+
+        return new ChessMove(Bitboards.x(from), Bitboards.y(from), Bitboards.x(to), Bitboards.y(to), board,
+                promotion, promotion ? Piece.toChar(Move.promotionType(move)) : '\0',
+                flag == Move.CASTLING, flag == Move.EN_PASSANT);
+    }
+
     public boolean isValid() {
         return fromX >= 0 &&
                 fromY >= 0 &&
@@ -102,36 +127,47 @@ public class ChessMove implements Serializable {
     }
 
     private @NotNull String getDisambiguation() {
-        if (movedPiece == null || movedPiece instanceof PawnChessPiece) {
-            return "";
-        }
-
-        List<ChessPiece> samePieces = board.getPieces(movedPiece.isWhite()).stream()
-                .filter(piece -> piece.getChar() == movedPiece.getChar())
-                .filter(piece -> piece.getX() != fromX || piece.getY() != fromY)
-                .filter(piece -> Arrays.stream(piece.getValidFields())
-                        .anyMatch(field -> field[0] == toX && field[1] == toY))
-                .toList();
+        if (disambiguation == null) resolveDisambiguation();
+        return disambiguation;
+    }
 
-        if (samePieces.isEmpty()) {
-            return "";
+    /**
+     * Works out which of the file and rank must be written to tell this move apart from moves of
+     * other same-type pieces onto the same square. Reads the board's cached legal moves, so it has to
+     * run while the board is still at the position before this move; the board calls it right before playing it.
+     */
+    void resolveDisambiguation() {
+        disambiguation = "";
+        if (movedPiece == null || movedPiece instanceof PawnChessPiece || !isValid()) return;
+
+        int from = Bitboards.square(fromX, fromY);
+        int to = Bitboards.square(toX, toY);
+        int type = movedPiece.getType();
+
+        boolean ambiguous = false;
+        boolean fileUnique = true;
+        boolean rankUnique = true;
+
+        MoveList moves = board.getLegalMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int otherFrom = Move.from(move);
+            if (Move.to(move) != to || otherFrom == from || Move.movedType(move) != type) continue;
+
+            ambiguous = true;
+            fileUnique &= Bitboards.x(otherFrom) != fromX;
+            rankUnique &= Bitboards.y(otherFrom) != fromY;
         }
 
-        boolean fileUnique = samePieces.stream()
-                .noneMatch(piece -> piece.getX() == fromX);
+        if (!ambiguous) return;
 
         if (fileUnique) {
-            return String.valueOf((char)('a' + fromX));
+            disambiguation = String.valueOf((char)('a' + fromX));
+        } else if (rankUnique) {
+            disambiguation = String.valueOf(8 - fromY);
+        } else {
+            disambiguation = String.valueOf((char)('a' + fromX)) + (8 - fromY);
         }
-
-        boolean rankUnique = samePieces.stream()
-                .noneMatch(piece -> piece.getY() == fromY);
-
-        if (rankUnique) {
-            return String.valueOf(8 - fromY);
-        }
-
-        return String.valueOf((char)('a' + fromX)) + (8 - fromY);
     }
 
     @Contract("_, _, _ -> new")
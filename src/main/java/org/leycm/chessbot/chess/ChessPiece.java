@@ -1,59 +1,59 @@
 package org.leycm.chessbot.chess;
 
-import lombok.Data;
+import lombok.Getter;
+import lombok.ToString;
+import org.leycm.chessbot.chess.bitboard.Piece;
+import org.leycm.chessbot.chess.pieces.*;
 
+import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
 
-@Data
+/**
+ * The kind of a piece: its type and color plus display data.
+ * <p>
+ * Pieces are shared, immutable flyweights, one instance per type and color (see {@link #of(int)}).
+ * They know nothing about where they stand; the board stores piece codes and answers everything
+ * that depends on the position ({@link ChessBoard#getValidMoves(int, int)}, {@link ChessBoard#getValidFields(int, int)}).
+ * Because there is exactly one instance per kind, pieces can be compared with {@code ==}.
+ */
+@Getter
+@ToString
 public abstract class ChessPiece implements Serializable {
 
     protected final boolean isWhite;
-    public boolean hasMovedYet = false;
-    protected final ChessBoard board;
-    protected final UUID uuid;
+    protected final int type;
     protected final int level;
     protected final String id;
     protected final String name;
     protected final char ico;
 
-    public ChessPiece(boolean isWhite, ChessBoard board, int level, String id, String name, char ico) {
+    protected ChessPiece(boolean isWhite, int type, int level, String id, String name, char ico) {
         this.isWhite = isWhite;
-        this.board = board;
+        this.type = type;
         this.level = level;
         this.id = id;
         this.name = name;
         this.ico = ico;
-        this.uuid = UUID.randomUUID();
     }
 
-    public abstract boolean isValidMove(int targetX, int targetY);
-
-
-    public abstract int[][] getValidFields();
-
-    public ChessMove[] getValidMoves() {
-        List<ChessMove> moves = new ArrayList<>();
-
-        int[][] fields = getValidFields();
-
-        for (int[] field : fields) {
-            ChessMove move = new ChessMove(getX(), getY(), field[0], field[1], board);
-            if (board.isMoveLegalRegardingCheck(move))
-                moves.add(move);
-        }
-
-        return moves.toArray(new ChessMove[]{});
-    }
-
-    public int getX() {
-        return board.getXForPiece(uuid);
+    /**
+     * The shared piece for a {@link Piece} code, or null for {@link Piece#NONE}.
+     */
+    public static ChessPiece of(int code) {
+        boolean white = Piece.isWhite(code);
+        return switch (Piece.type(code)) {
+            case Piece.PAWN -> PawnChessPiece.of(white);
+            case Piece.KNIGHT -> KnightChessPiece.of(white);
+            case Piece.BISHOP -> BishopChessPiece.of(white);
+            case Piece.ROOK -> RookChessPiece.of(white);
+            case Piece.QUEEN -> QueenChessPiece.of(white);
+            case Piece.KING -> KingChessPiece.of(white);
+            default -> null;
+        };
     }
 
-    public int getY() {
-        return board.getYForPiece(uuid);
+    public int getCode() {
+        return Piece.code(type, isWhite);
     }
 
     public char getColorChar() {
@@ -64,20 +64,11 @@ public abstract class ChessPiece implements Serializable {
         return Character.toUpperCase(name.charAt(0));
     }
 
-    protected boolean isValidCoordinate(int x, int y) {
-        return board.isValidCoord(x, y);
-    }
-
-    protected boolean isEmpty(int x, int y) {
-        return board.getPiece(x, y) == null;
-    }
-
-    protected boolean isEnemy(int x, int y) {
-        ChessPiece piece = board.getPiece(x, y);
-        return piece != null && piece.isWhite() != this.isWhite();
-    }
-
-    protected boolean canMoveTo(int x, int y) {
-        return isValidCoordinate(x, y) && (isEmpty(x, y) || isEnemy(x, y));
+    /**
+     * Keeps deserialized pieces on the shared instances.
+     */
+    @Serial
+    protected Object readResolve() {
+        return of(getCode());
     }
-}
\ No newline at end of file
+}
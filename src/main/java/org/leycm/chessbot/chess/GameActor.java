@@ -0,0 +1,74 @@
+package org.leycm.chessbot.chess;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * The single writer of a {@link ChessBoard}.
+ * <p>
+ * Every change that may come from another thread (UI input, AI answers, timer ticks) is queued as a
+ * command and applied by one virtual thread that owns the board. After each change the board publishes
+ * a new {@link GameSnapshot}, which everyone else reads without locking. Commands submitted from the
+ * writer thread itself, e.g. by a controller during a tick, run right away.
+ */
+public final class GameActor {
+
+    private final ChessBoard board;
+    private final BlockingQueue<Consumer<ChessBoard>> commands = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    GameActor(@NotNull ChessBoard board, @NotNull String name) {
+        this.board = board;
+        this.writer = Thread.ofVirtual().name(name).start(this::run);
+    }
+
+    /**
+     * Queues a change to the board. Commands run in submission order.
+     */
+    public void submit(@NotNull Consumer<ChessBoard> command) {
+        if (isWriterThread()) {
+            apply(command);
+            return;
+        }
+
+        if (!running) {
+            System.out.println("The board " + writer.getName() + " does not accept commands anymore");
+            return;
+        }
+        commands.add(command);
+    }
+
+    public boolean isWriterThread() {
+        return Thread.currentThread() == writer;
+    }
+
+    /**
+     * Stops the writer thread; queued commands that have not run yet are dropped.
+     */
+    public void stop() {
+        running = false;
+        writer.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                apply(commands.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void apply(Consumer<ChessBoard> command) {
+        try {
+            command.accept(board);
+        } catch (RuntimeException e) {
+            System.out.println("Command on " + writer.getName() + " failed: " + e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.leycm.chessbot.chess;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.leycm.chessbot.chess.bitboard.PositionSnapshot;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * An immutable view of a game, published by {@link ChessBoard} after every change.
+ * <p>
+ * Threads that do not own the board (the UI, the AI) read the latest snapshot instead of the live
+ * board, so they never see a half-applied move and never hold up the writer. The version grows by
+ * one with every published change, so two snapshots of the same board can be compared cheaply.
+ *
+ * @param moves     the moves played so far, oldest first
+ * @param positions the position before the first move and after every move, indexed by ply
+ */
+public record GameSnapshot(long version,
+                           @NotNull PositionSnapshot position,
+                           @NotNull ChessBoard.State state,
+                           @NotNull List<ChessMove> moves,
+                           @NotNull List<PositionSnapshot> positions) implements Serializable {
+
+    @Contract(pure = true)
+    public boolean isWhiteTurn() {
+        return position.isWhiteToMove();
+    }
+
+    public @Nullable ChessMove lastMove() {
+        return moves.isEmpty() ? null : moves.getLast();
+    }
+
+    /**
+     * The position after {@code ply} moves, or null if no move has been played yet.
+     */
+    public @Nullable PositionSnapshot positionAt(int ply) {
+        if (ply < 0 || ply >= positions.size()) return null;
+        return positions.get(ply);
+    }
+}
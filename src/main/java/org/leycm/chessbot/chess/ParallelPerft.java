@@ -0,0 +1,317 @@
+package org.leycm.chessbot.chess;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Fen;
+import org.leycm.chessbot.chess.bitboard.MoveGenerator;
+import org.leycm.chessbot.chess.bitboard.MoveList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Perft and position enumeration split across a {@link ForkJoinPool}.
+ * <p>
+ * Subtrees above {@link #SEQUENTIAL_DEPTH} are forked as separate tasks; every task owns its own
+ * copy of the position, so workers never share mutable board state. Optionally, subtree counts
+ * are shared through a lock-free {@link PerftCache}, and the walker skips positions it has already
+ * visited with the same remaining depth.
+ * <p>
+ * Usage: {@code ParallelPerft <depth> [threads] [fen]}.
+ */
+public final class ParallelPerft {
+
+    /**
+     * Subtrees this shallow are searched sequentially by the task that reaches them.
+     */
+    public static final int SEQUENTIAL_DEPTH = 3;
+
+    /**
+     * Called for every position reached by {@link #walk}. Calls come from many threads at once;
+     * the position belongs to the calling worker and must not be kept or modified.
+     */
+    @FunctionalInterface
+    public interface NodeVisitor {
+        void visit(@NotNull BitboardPosition position, int ply);
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String fen = args.length > 2 ? String.join(" ", List.of(args).subList(2, args.length)) : Fen.START_POSITION;
+
+        BitboardPosition root = new BitboardPosition();
+        Fen.load(root, fen);
+
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            for (PerftCache cache : new PerftCache[]{null, new PerftCache(256)}) {
+                long start = System.nanoTime();
+                long nodes = perft(root, depth, pool, cache);
+                long nanos = Math.max(1, System.nanoTime() - start);
+
+                System.out.printf("depth %d, %d threads%s: %,d nodes in %.1f ms (%,d nps)%n",
+                        depth, threads, cache == null ? "" : ", cached (" + cache.getHits() + " hits)",
+                        nodes, nanos / 1e6, nodes * 1_000_000_000L / nanos);
+            }
+        }
+    }
+
+    /**
+     * Counts the leaf nodes below the board's current position using the common pool.
+     */
+    public static long perft(@NotNull ChessBoard board, int depth) {
+        return perft(board.getPosition(), depth, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Counts the leaf nodes below {@code root}. The root position is copied and left untouched.
+     * @param cache shared subtree counts, or null to count every subtree
+     */
+    public static long perft(@NotNull BitboardPosition root, int depth, @NotNull ForkJoinPool pool, @Nullable PerftCache cache) {
+        if (depth <= 0) return 1;
+        return pool.invoke(new PerftTask(copyOf(root), depth, cache));
+    }
+
+    /**
+     * Visits every position of the legal move tree below {@code root}, the root included (ply 0).
+     * @param dedupeCapacity size of the shared table of visited positions, 0 to visit transpositions again
+     * @return the number of visited positions
+     */
+    public static long walk(@NotNull BitboardPosition root, int depth, @NotNull ForkJoinPool pool,
+                            int dedupeCapacity, @NotNull NodeVisitor visitor) {
+        VisitedSet visited = dedupeCapacity > 0 ? new VisitedSet(dedupeCapacity) : null;
+        return pool.invoke(new WalkTask(copyOf(root), 0, depth, visited, visitor));
+    }
+
+    private static BitboardPosition copyOf(BitboardPosition position) {
+        BitboardPosition copy = new BitboardPosition();
+        copy.copyFrom(position);
+        return copy;
+    }
+
+    private static BitboardPosition childOf(BitboardPosition position, int move) {
+        BitboardPosition child = copyOf(position);
+        child.makeMove(move);
+        return child;
+    }
+
+    private static final class PerftTask extends RecursiveTask<Long> {
+        private final BitboardPosition position;
+        private final int depth;
+        private final PerftCache cache;
+
+        private PerftTask(BitboardPosition position, int depth, PerftCache cache) {
+            this.position = position;
+            this.depth = depth;
+            this.cache = cache;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SEQUENTIAL_DEPTH) {
+                MoveList[] moves = new MoveList[depth + 1];
+                for (int i = 1; i <= depth; i++) moves[i] = new MoveList();
+                return count(position, depth, moves, cache);
+            }
+
+            if (cache != null) {
+                long cached = cache.get(position.getHashKey(), depth);
+                if (cached >= 0) return cached;
+            }
+
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegal(position, moves);
+
+            List<PerftTask> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                children.add(new PerftTask(childOf(position, moves.get(i)), depth - 1, cache));
+            }
+
+            long nodes = 0;
+            for (PerftTask child : invokeAll(children)) {
+                nodes += child.join();
+            }
+
+            if (cache != null) cache.put(position.getHashKey(), depth, nodes);
+            return nodes;
+        }
+
+        private static long count(BitboardPosition position, int depth, MoveList[] moves, PerftCache cache) {
+            MoveList list = moves[depth];
+            MoveGenerator.generateLegal(position, list);
+            if (depth == 1) return list.size();
+
+            if (cache != null) {
+                long cached = cache.get(position.getHashKey(), depth);
+                if (cached >= 0) return cached;
+            }
+
+            long nodes = 0;
+            for (int i = 0; i < list.size(); i++) {
+                position.makeMove(list.get(i));
+                nodes += count(position, depth - 1, moves, cache);
+                position.unmakeMove();
+            }
+
+            if (cache != null) cache.put(position.getHashKey(), depth, nodes);
+            return nodes;
+        }
+    }
+
+    private static final class WalkTask extends RecursiveTask<Long> {
+        private final BitboardPosition position;
+        private final int ply;
+        private final int depth;
+        private final VisitedSet visited;
+        private final NodeVisitor visitor;
+
+        private WalkTask(BitboardPosition position, int ply, int depth, VisitedSet visited, NodeVisitor visitor) {
+            this.position = position;
+            this.ply = ply;
+            this.depth = depth;
+            this.visited = visited;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SEQUENTIAL_DEPTH) {
+                MoveList[] moves = new MoveList[depth + 1];
+                for (int i = 1; i <= depth; i++) moves[i] = new MoveList();
+                return walk(position, ply, depth, moves);
+            }
+
+            if (!enter(position, depth, ply)) return 0L;
+
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegal(position, moves);
+
+            List<WalkTask> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                children.add(new WalkTask(childOf(position, moves.get(i)), ply + 1, depth - 1, visited, visitor));
+            }
+
+            long nodes = 1;
+            for (WalkTask child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+
+        private long walk(BitboardPosition position, int ply, int depth, MoveList[] moves) {
+            if (!enter(position, depth, ply)) return 0L;
+            if (depth == 0) return 1L;
+
+            MoveList list = moves[depth];
+            MoveGenerator.generateLegal(position, list);
+
+            long nodes = 1;
+            for (int i = 0; i < list.size(); i++) {
+                position.makeMove(list.get(i));
+                nodes += walk(position, ply + 1, depth - 1, moves);
+                position.unmakeMove();
+            }
+            return nodes;
+        }
+
+        /**
+         * Marks the position as visited and reports it, unless it was already visited with this depth left.
+         */
+        private boolean enter(BitboardPosition position, int depth, int ply) {
+            if (visited != null && !visited.add(PerftCache.depthKey(position.getHashKey(), depth))) return false;
+            visitor.visit(position, ply);
+            return true;
+        }
+    }
+
+    /**
+     * Lock-free shared table of subtree node counts, keyed by position hash and depth.
+     * <p>
+     * Each entry is two plain longs, the data and the key XOR the data. Concurrent writers may
+     * leave an entry torn; such an entry no longer XORs back to its key and reads as a miss, so no
+     * locks are needed. Entries are always replaced.
+     */
+    public static final class PerftCache {
+        private final long[] keys;
+        private final long[] data;
+        private final int mask;
+        private volatile long hits;
+
+        public PerftCache(int sizeMb) {
+            int entries = Integer.highestOneBit(Math.max(1, (sizeMb << 20) / 16));
+            this.keys = new long[entries];
+            this.data = new long[entries];
+            this.mask = entries - 1;
+        }
+
+        /**
+         * @return the cached node count, or -1
+         */
+        public long get(long hashKey, int depth) {
+            long key = depthKey(hashKey, depth);
+            int index = (int) key & mask;
+            long entry = data[index];
+            if ((keys[index] ^ entry) != key || (entry & 0xFF) != depth) return -1;
+
+            hits++;
+            return entry >>> 8;
+        }
+
+        public void put(long hashKey, int depth, long nodes) {
+            long key = depthKey(hashKey, depth);
+            int index = (int) key & mask;
+            long entry = (nodes << 8) | depth;
+            data[index] = entry;
+            keys[index] = key ^ entry;
+        }
+
+        /**
+         * Approximate: increments from different threads may be lost.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        static long depthKey(long hashKey, int depth) {
+            return hashKey ^ (depth * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    /**
+     * Lock-free open-addressing set of position keys. Once full it stops deduplicating
+     * and reports every key as new.
+     */
+    private static final class VisitedSet {
+        private final AtomicLongArray keys;
+        private final int mask;
+
+        private VisitedSet(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+            this.keys = new AtomicLongArray(size);
+            this.mask = size - 1;
+        }
+
+        boolean add(long key) {
+            if (key == 0) key = 1; // 0 marks a free slot
+
+            int index = (int) key & mask;
+            for (int probe = 0; probe <= mask; probe++, index = (index + 1) & mask) {
+                long current = keys.get(index);
+                if (current == key) return false;
+                if (current == 0) {
+                    if (keys.compareAndSet(index, 0, key)) return true;
+                    if (keys.get(index) == key) return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private ParallelPerft() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,129 @@
+package org.leycm.chessbot.chess;
+
+import org.jetbrains.annotations.NotNull;
+import org.leycm.chessbot.chess.bitboard.Bitboards;
+import org.leycm.chessbot.chess.bitboard.Fen;
+import org.leycm.chessbot.chess.bitboard.Move;
+import org.leycm.chessbot.chess.bitboard.MoveList;
+
+import java.util.List;
+
+/**
+ * Counts the leaf nodes of the legal move tree ("perft") to check move generation against
+ * published reference counts and to measure its speed.
+ * <p>
+ * Usage: {@code Perft} runs all {@link #REFERENCES}; {@code Perft <depth> [fen]} prints the
+ * node count per root move for one position (start position by default).
+ */
+public final class Perft {
+
+    /**
+     * A reference position with its known node counts, {@code nodes[0]} being depth 1.
+     */
+    public record Reference(@NotNull String name, @NotNull String fen, long @NotNull ... nodes) {}
+
+    public static final List<Reference> REFERENCES = List.of(
+            new Reference("start", Fen.START_POSITION,
+                    20L, 400L, 8_902L, 197_281L, 4_865_609L),
+            new Reference("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48L, 2_039L, 97_862L, 4_085_603L),
+            new Reference("position3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14L, 191L, 2_812L, 43_238L, 674_624L),
+            new Reference("position4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6L, 264L, 9_467L, 422_333L),
+            new Reference("position5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44L, 1_486L, 62_379L, 2_103_487L),
+            new Reference("position6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46L, 2_079L, 89_890L, 3_894_594L)
+    );
+
+    public static void main(String[] args) {
+        if (args.length > 0) {
+            int depth = Integer.parseInt(args[0]);
+            String fen = args.length > 1 ? String.join(" ", List.of(args).subList(1, args.length)) : Fen.START_POSITION;
+            divide(ChessBoard.fromFen(fen), depth);
+            return;
+        }
+
+        boolean allPassed = true;
+        for (Reference reference : REFERENCES) {
+            allPassed &= run(reference, reference.nodes().length);
+        }
+        System.out.println(allPassed ? "All perft counts match." : "Perft counts DIFFER from the reference!");
+    }
+
+    /**
+     * Runs a reference position up to {@code maxDepth} and prints nodes, time and nodes per second.
+     * @return whether all counts matched
+     */
+    public static boolean run(@NotNull Reference reference, int maxDepth) {
+        ChessBoard board = ChessBoard.fromFen(reference.fen());
+        boolean passed = true;
+
+        for (int depth = 1; depth <= Math.min(maxDepth, reference.nodes().length); depth++) {
+            long start = System.nanoTime();
+            long nodes = perft(board, depth);
+            long nanos = Math.max(1, System.nanoTime() - start);
+
+            long expected = reference.nodes()[depth - 1];
+            passed &= nodes == expected;
+            System.out.printf("%-10s depth %d: %,12d nodes %8.1f ms %,14d nps %s%n",
+                    reference.name(), depth, nodes, nanos / 1e6, nodes * 1_000_000_000L / nanos,
+                    nodes == expected ? "OK" : "EXPECTED " + expected);
+        }
+
+        return passed;
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree of the side to move, {@code depth} plies deep.
+     * The board is walked with make/unmake and is unchanged afterwards.
+     */
+    public static long perft(@NotNull ChessBoard board, int depth) {
+        if (depth <= 0) return 1;
+
+        MoveList[] moves = new MoveList[depth + 1];
+        for (int i = 1; i <= depth; i++) moves[i] = new MoveList();
+        return perft(board, depth, moves);
+    }
+
+    /**
+     * Prints the node count below every root move, which narrows a wrong total down to one move.
+     */
+    public static long divide(@NotNull ChessBoard board, int depth) {
+        MoveList rootMoves = new MoveList();
+        board.generateLegalMoves(board.isWhiteTurn(), Bitboards.ALL, rootMoves);
+
+        long total = 0;
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            board.makeMove(move);
+            long nodes = perft(board, depth - 1);
+            board.unmakeMove();
+
+            total += nodes;
+            System.out.println(Move.toUci(move) + ": " + nodes);
+        }
+
+        System.out.println("Nodes: " + total);
+        return total;
+    }
+
+    private static long perft(ChessBoard board, int depth, MoveList[] moves) {
+        MoveList list = moves[depth];
+        board.generateLegalMoves(board.isWhiteTurn(), Bitboards.ALL, list);
+        if (depth == 1) return list.size();
+
+        long nodes = 0;
+        for (int i = 0; i < list.size(); i++) {
+            board.makeMove(list.get(i));
+            nodes += perft(board, depth - 1, moves);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private Perft() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,235 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Precomputed attack sets for every piece type.
+ * <p>
+ * Knights, kings and pawns use plain per-square tables. Rooks and bishops use "fancy" magic
+ * bitboards: the relevant occupancy of a square is multiplied by a magic number and the top bits
+ * index straight into a shared table, so a slider's attack set is a single lookup.
+ * The magic numbers are specific to the square layout in {@link Bitboards}.
+ */
+public final class Attacks {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] KNIGHT_STEPS = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+    private static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+    private static final long[] ROOK_MAGIC_NUMBERS = {
+            0x0900104021008000L, 0x5040004010002000L, 0x0100100841002000L, 0x0900050020100008L,
+            0x0100040800021100L, 0x0900081C00090012L, 0x0400020408309110L, 0x0100010000802042L,
+            0xB800802040008002L, 0x2484802008804000L, 0x0043004220001100L, 0x0002000A40201200L,
+            0x0090800400800800L, 0x4100808002000400L, 0x9401010002000401L, 0x0403800480086100L,
+            0x4000828000400028L, 0x5410044003200048L, 0x046B010020001040L, 0x0810008080100800L,
+            0x0800808008000400L, 0x0080080120041040L, 0x00024400A8010A10L, 0x1006820000940061L,
+            0x0180084440002008L, 0x2000200440005000L, 0x1428100080200082L, 0x0048008080081004L,
+            0x0048010100040810L, 0x0401000900140046L, 0x0002080C0021100AL, 0x4000008200004401L,
+            0x8010400020800888L, 0x0090002004400046L, 0x8080820042002010L, 0x0008100080800800L,
+            0x0208000400808008L, 0x1002004482005008L, 0x0000100184000208L, 0x0020800058800900L,
+            0x40400A4620808001L, 0x4000810040030020L, 0x0800200010008080L, 0x042010002101000AL,
+            0x21C8000400808009L, 0x8000040002008080L, 0x00100802102C0099L, 0x0000088305420004L,
+            0x1000400680002480L, 0x0000400020009080L, 0x0080804010220200L, 0x4010100302E04900L,
+            0x02A8040008008080L, 0x8504020080040080L, 0x0009000200040100L, 0x0200010400804200L,
+            0x0003210242908003L, 0x0001008020401202L, 0x002820000C410011L, 0x201000104904A101L,
+            0x1285000210040801L, 0x84CA004890010402L, 0x0000081000820104L, 0x030049640D024482L
+    };
+
+    private static final long[] BISHOP_MAGIC_NUMBERS = {
+            0x8004100428002440L, 0x0020826082008880L, 0x4088020462080020L, 0x400C3400800000BAL,
+            0x4424042000028030L, 0x00129004A0018100L, 0x20208E0110400000L, 0x0000908213104020L,
+            0x0809041010210108L, 0x2403020401041108L, 0x0421080204202000L, 0x0808080602400802L,
+            0x4107011040440000L, 0x0A0200C430400201L, 0x1008018818821050L, 0x2040002404020904L,
+            0x840650A020121600L, 0x0060000832608200L, 0x005000061268C100L, 0x04020010401042C0L,
+            0x0B01000811400000L, 0x4011000A01108280L, 0x80028006208C2022L, 0x0401010044020180L,
+            0x00601041210C1502L, 0x0508210004440494L, 0x00080100021A0A00L, 0x0000808008020003L,
+            0x3021010000104009L, 0x00410A0050C15000L, 0x0214040800A20110L, 0x0084210400805102L,
+            0x100209200104E000L, 0x0008040200040819L, 0x000A002400020808L, 0x8801A00800010810L,
+            0x0082020804040040L, 0x009028820024220AL, 0x0101180081420200L, 0x20020602000C3280L,
+            0x1404010868204084L, 0x0401011002041001L, 0x4080108401061004L, 0x2A54020212018402L,
+            0x01D1080104000044L, 0x0040080080204100L, 0x1204100882218110L, 0x24100A02204CA8E0L,
+            0x6000808820100007L, 0x400101080242A011L, 0x20000084008800D8L, 0x0000000C84044800L,
+            0x00220012220A0420L, 0x0021210202020400L, 0x04122011012A0640L, 0x40048434040C2100L,
+            0x0000208210100200L, 0x4020410911300200L, 0x12028000540C0C10L, 0x8026000041084804L,
+            0x80400900400D0909L, 0x1000012104511200L, 0x00004008110C4893L, 0x0110011004004A44L
+    };
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final Magic[] ROOK_MAGICS = new Magic[64];
+    private static final Magic[] BISHOP_MAGICS = new Magic[64];
+    private static final long[] ROOK_TABLE = new long[0x19000];
+    private static final long[] BISHOP_TABLE = new long[0x1480];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private record Magic(long mask, long magic, int shift, int offset) {
+        int index(long occupied) {
+            return offset + (int) (((occupied & mask) * magic) >>> shift);
+        }
+    }
+
+    static {
+        int rookOffset = 0;
+        int bishopOffset = 0;
+
+        for (int square = 0; square < 64; square++) {
+            int x = Bitboards.x(square);
+            int y = Bitboards.y(square);
+
+            KNIGHT[square] = steps(x, y, KNIGHT_STEPS);
+            KING[square] = steps(x, y, KING_STEPS);
+            PAWN[Piece.WHITE][square] = steps(x, y, new int[][]{{-1, -1}, {1, -1}});
+            PAWN[Piece.BLACK][square] = steps(x, y, new int[][]{{-1, 1}, {1, 1}});
+
+            ROOK_MAGICS[square] = fillTable(square, ROOK_DIRECTIONS, ROOK_MAGIC_NUMBERS[square], ROOK_TABLE, rookOffset);
+            rookOffset += 1 << Long.bitCount(ROOK_MAGICS[square].mask());
+
+            BISHOP_MAGICS[square] = fillTable(square, BISHOP_DIRECTIONS, BISHOP_MAGIC_NUMBERS[square], BISHOP_TABLE, bishopOffset);
+            bishopOffset += 1 << Long.bitCount(BISHOP_MAGICS[square].mask());
+        }
+
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                if (from == to) continue;
+                long ends = Bitboards.bit(from) | Bitboards.bit(to);
+
+                if (Bitboards.contains(rook(from, 0L), to)) {
+                    BETWEEN[from][to] = rook(from, Bitboards.bit(to)) & rook(to, Bitboards.bit(from));
+                    LINE[from][to] = (rook(from, 0L) & rook(to, 0L)) | ends;
+                } else if (Bitboards.contains(bishop(from, 0L), to)) {
+                    BETWEEN[from][to] = bishop(from, Bitboards.bit(to)) & bishop(to, Bitboards.bit(from));
+                    LINE[from][to] = (bishop(from, 0L) & bishop(to, 0L)) | ends;
+                }
+            }
+        }
+    }
+
+    @Contract(pure = true)
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    @Contract(pure = true)
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * The squares a pawn of the given color attacks (its diagonal captures, not its pushes).
+     */
+    @Contract(pure = true)
+    public static long pawn(int square, boolean white) {
+        return PAWN[Piece.colorIndex(white)][square];
+    }
+
+    @Contract(pure = true)
+    public static long rook(int square, long occupied) {
+        return ROOK_TABLE[ROOK_MAGICS[square].index(occupied)];
+    }
+
+    @Contract(pure = true)
+    public static long bishop(int square, long occupied) {
+        return BISHOP_TABLE[BISHOP_MAGICS[square].index(occupied)];
+    }
+
+    @Contract(pure = true)
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * The squares strictly between two squares on a shared rank, file or diagonal; empty otherwise.
+     */
+    @Contract(pure = true)
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * The full rank, file or diagonal through both squares (edge to edge); empty if they are not aligned.
+     */
+    @Contract(pure = true)
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * The attack set of any piece code standing on {@code square}.
+     */
+    @Contract(pure = true)
+    public static long of(int piece, int square, long occupied) {
+        return switch (Piece.type(piece)) {
+            case Piece.PAWN -> pawn(square, Piece.isWhite(piece));
+            case Piece.KNIGHT -> knight(square);
+            case Piece.BISHOP -> bishop(square, occupied);
+            case Piece.ROOK -> rook(square, occupied);
+            case Piece.QUEEN -> queen(square, occupied);
+            case Piece.KING -> king(square);
+            default -> 0L;
+        };
+    }
+
+    private static long steps(int x, int y, int[][] steps) {
+        long result = 0L;
+        for (int[] step : steps) {
+            int newX = x + step[0];
+            int newY = y + step[1];
+            if (Bitboards.isValidSquare(newX, newY)) {
+                result |= Bitboards.bit(Bitboards.square(newX, newY));
+            }
+        }
+        return result;
+    }
+
+    private static long slide(int square, long occupied, int[][] directions) {
+        long result = 0L;
+        for (int[] direction : directions) {
+            int x = Bitboards.x(square) + direction[0];
+            int y = Bitboards.y(square) + direction[1];
+            while (Bitboards.isValidSquare(x, y)) {
+                long bit = Bitboards.bit(Bitboards.square(x, y));
+                result |= bit;
+                if ((occupied & bit) != 0) break;
+                x += direction[0];
+                y += direction[1];
+            }
+        }
+        return result;
+    }
+
+    private static long relevantMask(int square, int[][] directions) {
+        long result = 0L;
+        for (int[] direction : directions) {
+            int x = Bitboards.x(square) + direction[0];
+            int y = Bitboards.y(square) + direction[1];
+            while (Bitboards.isValidSquare(x + direction[0], y + direction[1])) {
+                result |= Bitboards.bit(Bitboards.square(x, y));
+                x += direction[0];
+                y += direction[1];
+            }
+        }
+        return result;
+    }
+
+    private static Magic fillTable(int square, int[][] directions, long magic, long[] table, int offset) {
+        long mask = relevantMask(square, directions);
+        Magic result = new Magic(mask, magic, 64 - Long.bitCount(mask), offset);
+
+        long subset = 0L;
+        do {
+            table[result.index(subset)] = slide(square, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        return result;
+    }
+
+    private Attacks() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
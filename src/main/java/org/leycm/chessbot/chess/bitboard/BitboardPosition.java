@@ -0,0 +1,554 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.Contract;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Piece placement stored as one bitboard per piece code plus color and occupancy masks,
+ * together with the rest of the game state (side to move, castling rights, en passant square
+ * and clocks).
+ * <p>
+ * A byte mailbox mirrors the bitboards so "what is on this square" stays a single array read.
+ * {@link #makeMove(int)} and {@link #unmakeMove()} walk through positions in place; everything
+ * needed to take a move back is pushed onto a primitive undo stack.
+ * <p>
+ * A {@link Zobrist} key of the position is kept up to date by every mutation, and so are a
+ * second key of the pawns alone, the material, {@link PieceSquareTables piece-square} and game phase sums an evaluation needs.
+ */
+public final class BitboardPosition implements Serializable {
+
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[Bitboards.square(4, 7)] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        CASTLING_MASK[Bitboards.square(7, 7)] &= ~WHITE_KING_SIDE;
+        CASTLING_MASK[Bitboards.square(0, 7)] &= ~WHITE_QUEEN_SIDE;
+        CASTLING_MASK[Bitboards.square(4, 0)] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        CASTLING_MASK[Bitboards.square(7, 0)] &= ~BLACK_KING_SIDE;
+        CASTLING_MASK[Bitboards.square(0, 0)] &= ~BLACK_QUEEN_SIDE;
+    }
+
+    private final long[] pieces = new long[Piece.CODE_COUNT];
+    private final long[] colors = new long[2];
+    private long occupied;
+
+    private final byte[] mailbox = new byte[64];
+    private final int[] kingSquares = {-1, -1};
+
+    private boolean whiteToMove = true;
+    private int castlingRights;
+    private int enPassantSquare = -1;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long hashKey;
+    private long pawnKey;
+
+    private int material;
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
+
+    private int[] undoMoves = new int[256];
+    private int[] undoStates = new int[256];
+    private long[] undoKeys = new long[256];
+    private int undoSize;
+
+    public void clear() {
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(mailbox, (byte) Piece.NONE);
+        colors[Piece.WHITE] = 0L;
+        colors[Piece.BLACK] = 0L;
+        occupied = 0L;
+        kingSquares[Piece.WHITE] = -1;
+        kingSquares[Piece.BLACK] = -1;
+
+        whiteToMove = true;
+        castlingRights = 0;
+        enPassantSquare = -1;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        hashKey = 0L;
+        pawnKey = 0L;
+        material = 0;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        undoSize = 0;
+    }
+
+    /**
+     * Puts a piece on a square, replacing whatever stood there.
+     */
+    public void put(int piece, int square) {
+        remove(square);
+        if (piece == Piece.NONE) return;
+
+        long bit = 1L << square;
+        pieces[piece] |= bit;
+        colors[Piece.color(piece)] |= bit;
+        occupied |= bit;
+        mailbox[square] = (byte) piece;
+        hashKey ^= Zobrist.piece(piece, square);
+        if (Piece.type(piece) == Piece.PAWN) pawnKey ^= Zobrist.piece(piece, square);
+        material += PieceSquareTables.material(piece);
+        midgameScore += PieceSquareTables.midgame(piece, square);
+        endgameScore += PieceSquareTables.endgame(piece, square);
+        phase += PieceSquareTables.phase(piece);
+        if (Piece.type(piece) == Piece.KING) kingSquares[Piece.color(piece)] = square;
+    }
+
+    /**
+     * Removes the piece on a square.
+     * @return the removed piece code, or {@link Piece#NONE} if the square was empty
+     */
+    public int remove(int square) {
+        int piece = mailbox[square];
+        if (piece == Piece.NONE) return Piece.NONE;
+
+        long bit = ~(1L << square);
+        pieces[piece] &= bit;
+        colors[Piece.color(piece)] &= bit;
+        occupied &= bit;
+        mailbox[square] = (byte) Piece.NONE;
+        hashKey ^= Zobrist.piece(piece, square);
+        if (Piece.type(piece) == Piece.PAWN) pawnKey ^= Zobrist.piece(piece, square);
+        material -= PieceSquareTables.material(piece);
+        midgameScore -= PieceSquareTables.midgame(piece, square);
+        endgameScore -= PieceSquareTables.endgame(piece, square);
+        phase -= PieceSquareTables.phase(piece);
+        if (Piece.type(piece) == Piece.KING) kingSquares[Piece.color(piece)] = -1;
+        return piece;
+    }
+
+    /**
+     * Moves the piece on {@code from} to {@code to}, capturing anything on the target square.
+     * @return the captured piece code, or {@link Piece#NONE}
+     */
+    public int move(int from, int to) {
+        int piece = mailbox[from];
+        int captured = remove(to);
+        remove(from);
+        put(piece, to);
+        return captured;
+    }
+
+    /**
+     * Plays a pseudo-legal move. The move is not validated; callers that need legality
+     * test {@code isKingInCheck} for the side that just moved afterwards.
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flag = Move.flag(move);
+        int piece = mailbox[from];
+
+        int capturedSquare = flag == Move.EN_PASSANT ? enPassantCaptureSquare(to) : to;
+        int captured = mailbox[capturedSquare];
+
+        pushUndo(move, captured);
+
+        remove(capturedSquare);
+        remove(from);
+        put(flag == Move.PROMOTION ? Piece.code(Move.promotionType(move), Piece.isWhite(piece)) : piece, to);
+
+        if (flag == Move.CASTLING) {
+            put(remove(castlingRookFrom(from, to)), castlingRookTo(from, to));
+        }
+
+        setCastlingRights(castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to]);
+        setEnPassantSquare(flag == Move.DOUBLE_PUSH ? enPassantTarget(from, to) : -1);
+        halfmoveClock = Piece.type(piece) == Piece.PAWN || captured != Piece.NONE ? 0 : halfmoveClock + 1;
+        if (!whiteToMove) fullmoveNumber++;
+        whiteToMove = !whiteToMove;
+        hashKey ^= Zobrist.blackToMove();
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove(int)}.
+     */
+    public void unmakeMove() {
+        undoSize--;
+        int move = undoMoves[undoSize];
+        int state = undoStates[undoSize];
+
+        whiteToMove = !whiteToMove;
+        if (!whiteToMove) fullmoveNumber--;
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flag = Move.flag(move);
+
+        castlingRights = (state >>> 4) & 0xF;
+        enPassantSquare = ((state >>> 8) & 0x7F) - 1;
+        halfmoveClock = state >>> 16;
+
+        if (flag == Move.CASTLING) {
+            put(remove(castlingRookTo(from, to)), castlingRookFrom(from, to));
+        }
+
+        int piece = remove(to);
+        put(flag == Move.PROMOTION ? Piece.code(Piece.PAWN, Piece.isWhite(piece)) : piece, from);
+
+        int captured = state & 0xF;
+        if (captured != Piece.NONE) {
+            put(captured, flag == Move.EN_PASSANT ? enPassantCaptureSquare(to) : to);
+        }
+
+        hashKey = undoKeys[undoSize];
+    }
+
+    /**
+     * Passes the turn without moving, for null-move pruning. The halfmove clock restarts, so
+     * {@link #isRepetition()} does not look back across the null move.
+     */
+    public void makeNullMove() {
+        pushUndo(Move.NONE, Piece.NONE);
+
+        setEnPassantSquare(-1);
+        halfmoveClock = 0;
+        if (!whiteToMove) fullmoveNumber++;
+        whiteToMove = !whiteToMove;
+        hashKey ^= Zobrist.blackToMove();
+    }
+
+    /**
+     * Takes back a {@link #makeNullMove()}.
+     */
+    public void unmakeNullMove() {
+        undoSize--;
+        int state = undoStates[undoSize];
+
+        whiteToMove = !whiteToMove;
+        if (!whiteToMove) fullmoveNumber--;
+
+        enPassantSquare = ((state >>> 8) & 0x7F) - 1;
+        halfmoveClock = state >>> 16;
+        hashKey = undoKeys[undoSize];
+    }
+
+    /**
+     * The last move played with {@link #makeMove(int)}, or {@link Move#NONE} (also after a null move).
+     */
+    @Contract(pure = true)
+    public int lastMove() {
+        return undoSize == 0 ? Move.NONE : undoMoves[undoSize - 1];
+    }
+
+    @Contract(pure = true)
+    public int undoDepth() {
+        return undoSize;
+    }
+
+    /**
+     * Whether the current position already occurred since the last capture or pawn move,
+     * as far back as the undo stack reaches.
+     */
+    @Contract(pure = true)
+    public boolean isRepetition() {
+        int end = Math.max(0, undoSize - halfmoveClock);
+        for (int i = undoSize - 4; i >= end; i -= 2) {
+            if (undoKeys[i] == hashKey) return true;
+        }
+        return false;
+    }
+
+    private void pushUndo(int move, int captured) {
+        if (undoSize == undoMoves.length) {
+            undoMoves = Arrays.copyOf(undoMoves, undoSize * 2);
+            undoStates = Arrays.copyOf(undoStates, undoSize * 2);
+            undoKeys = Arrays.copyOf(undoKeys, undoSize * 2);
+        }
+
+        undoMoves[undoSize] = move;
+        undoStates[undoSize] = captured
+                | (castlingRights << 4)
+                | ((enPassantSquare + 1) << 8)
+                | (halfmoveClock << 16);
+        undoKeys[undoSize] = hashKey;
+        undoSize++;
+    }
+
+    /**
+     * The en passant square after a double push, or -1 if no enemy pawn could capture there;
+     * keeping it unset keeps otherwise identical positions on the same hash key.
+     */
+    private int enPassantTarget(int from, int to) {
+        int square = (from + to) >>> 1;
+        boolean white = Piece.isWhite(mailbox[to]);
+        return (Attacks.pawn(square, white) & pieces(Piece.PAWN, !white)) != 0 ? square : -1;
+    }
+
+    private int enPassantCaptureSquare(int to) {
+        return whiteToMove ? to + 8 : to - 8;
+    }
+
+    private static int castlingRookFrom(int kingFrom, int kingTo) {
+        return kingTo > kingFrom ? kingTo + 1 : kingTo - 2;
+    }
+
+    private static int castlingRookTo(int kingFrom, int kingTo) {
+        return kingTo > kingFrom ? kingTo - 1 : kingTo + 1;
+    }
+
+    @Contract(pure = true)
+    public int pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    @Contract(pure = true)
+    public long pieces(int piece) {
+        return pieces[piece];
+    }
+
+    @Contract(pure = true)
+    public long pieces(int type, boolean white) {
+        return pieces[Piece.code(type, white)];
+    }
+
+    @Contract(pure = true)
+    public long occupancy(boolean white) {
+        return colors[Piece.colorIndex(white)];
+    }
+
+    @Contract(pure = true)
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * The square of the given side's king, or -1 if there is none.
+     */
+    @Contract(pure = true)
+    public int kingSquare(boolean white) {
+        return kingSquares[Piece.colorIndex(white)];
+    }
+
+    /**
+     * All pieces of one color that attack {@code square}, looked up in reverse from the square:
+     * a piece attacks the square exactly when the square, moving like that piece, attacks it.
+     */
+    @Contract(pure = true)
+    public long attackersOf(int square, boolean byWhite, long occupied) {
+        long rooksQueens = pieces(Piece.ROOK, byWhite) | pieces(Piece.QUEEN, byWhite);
+        long bishopsQueens = pieces(Piece.BISHOP, byWhite) | pieces(Piece.QUEEN, byWhite);
+
+        return (Attacks.pawn(square, !byWhite) & pieces(Piece.PAWN, byWhite))
+                | (Attacks.knight(square) & pieces(Piece.KNIGHT, byWhite))
+                | (Attacks.king(square) & pieces(Piece.KING, byWhite))
+                | (Attacks.rook(square, occupied) & rooksQueens)
+                | (Attacks.bishop(square, occupied) & bishopsQueens);
+    }
+
+    @Contract(pure = true)
+    public boolean isSquareAttacked(int square, boolean byWhite) {
+        return attackersOf(square, byWhite, occupied) != 0;
+    }
+
+    /**
+     * Whether the given side's king is attacked; false if it has no king.
+     */
+    @Contract(pure = true)
+    public boolean isInCheck(boolean white) {
+        int king = kingSquares[Piece.colorIndex(white)];
+        return king != -1 && isSquareAttacked(king, !white);
+    }
+
+    /**
+     * Every square attacked by one color, with sliding attacks computed against {@code occupied}.
+     */
+    @Contract(pure = true)
+    public long attackedSquares(boolean byWhite, long occupied) {
+        long pawns = pieces(Piece.PAWN, byWhite);
+        long attacked = byWhite
+                ? ((pawns & ~Bitboards.FILE_A) >>> 9) | ((pawns & ~Bitboards.FILE_H) >>> 7)
+                : ((pawns & ~Bitboards.FILE_A) << 7) | ((pawns & ~Bitboards.FILE_H) << 9);
+
+        for (long bits = pieces(Piece.KNIGHT, byWhite); bits != 0; bits = Bitboards.withoutFirst(bits)) {
+            attacked |= Attacks.knight(Bitboards.first(bits));
+        }
+        for (long bits = pieces(Piece.BISHOP, byWhite) | pieces(Piece.QUEEN, byWhite); bits != 0; bits = Bitboards.withoutFirst(bits)) {
+            attacked |= Attacks.bishop(Bitboards.first(bits), occupied);
+        }
+        for (long bits = pieces(Piece.ROOK, byWhite) | pieces(Piece.QUEEN, byWhite); bits != 0; bits = Bitboards.withoutFirst(bits)) {
+            attacked |= Attacks.rook(Bitboards.first(bits), occupied);
+        }
+
+        int king = kingSquares[Piece.colorIndex(byWhite)];
+        return king == -1 ? attacked : attacked | Attacks.king(king);
+    }
+
+    @Contract(pure = true)
+    public boolean isWhiteToMove() {
+        return whiteToMove;
+    }
+
+    public void setWhiteToMove(boolean whiteToMove) {
+        if (this.whiteToMove != whiteToMove) hashKey ^= Zobrist.blackToMove();
+        this.whiteToMove = whiteToMove;
+    }
+
+    @Contract(pure = true)
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        hashKey ^= Zobrist.castling(this.castlingRights);
+        this.castlingRights = castlingRights & ALL_CASTLING;
+        hashKey ^= Zobrist.castling(this.castlingRights);
+    }
+
+    /**
+     * The square a pawn may capture onto en passant, or -1.
+     */
+    @Contract(pure = true)
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        hashKey ^= Zobrist.enPassant(this.enPassantSquare);
+        this.enPassantSquare = enPassantSquare;
+        hashKey ^= Zobrist.enPassant(this.enPassantSquare);
+    }
+
+    @Contract(pure = true)
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    @Contract(pure = true)
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * The incrementally maintained Zobrist key of this position.
+     */
+    @Contract(pure = true)
+    public long getHashKey() {
+        return hashKey;
+    }
+
+    /**
+     * The incrementally maintained Zobrist key of the pawns only, shared by all positions with the
+     * same pawn structure.
+     */
+    @Contract(pure = true)
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * White's material advantage in centipawns, see {@link PieceSquareTables#material(int)}.
+     */
+    @Contract(pure = true)
+    public int getMaterial() {
+        return material;
+    }
+
+    /**
+     * White's piece-square advantage with the midgame tables.
+     */
+    @Contract(pure = true)
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    /**
+     * White's piece-square advantage with the endgame tables.
+     */
+    @Contract(pure = true)
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * The game phase from {@link PieceSquareTables#MAX_PHASE} (all pieces on the board) down to 0 (only kings and pawns).
+     * Can exceed the maximum after promotions.
+     */
+    @Contract(pure = true)
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Computes the Zobrist key from scratch, e.g. to verify the incremental key.
+     */
+    @Contract(pure = true)
+    public long computeHashKey() {
+        long key = 0L;
+        for (long bits = occupied; bits != 0; bits = Bitboards.withoutFirst(bits)) {
+            int square = Bitboards.first(bits);
+            key ^= Zobrist.piece(mailbox[square], square);
+        }
+        if (!whiteToMove) key ^= Zobrist.blackToMove();
+        return key ^ Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+    }
+
+    /**
+     * Computes the pawn key from scratch, e.g. to verify the incremental key.
+     */
+    @Contract(pure = true)
+    public long computePawnKey() {
+        long key = 0L;
+        for (long bits = pieces(Piece.PAWN, true) | pieces(Piece.PAWN, false); bits != 0; bits = Bitboards.withoutFirst(bits)) {
+            int square = Bitboards.first(bits);
+            key ^= Zobrist.piece(mailbox[square], square);
+        }
+        return key;
+    }
+
+    /**
+     * Copies the placement, game state and undo stack of another position, so the copy can take back
+     * the same moves and recognizes repetitions of positions reached before the call.
+     */
+    public void copyFrom(BitboardPosition other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+        colors[Piece.WHITE] = other.colors[Piece.WHITE];
+        colors[Piece.BLACK] = other.colors[Piece.BLACK];
+        occupied = other.occupied;
+        kingSquares[Piece.WHITE] = other.kingSquares[Piece.WHITE];
+        kingSquares[Piece.BLACK] = other.kingSquares[Piece.BLACK];
+
+        whiteToMove = other.whiteToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        hashKey = other.hashKey;
+        pawnKey = other.pawnKey;
+        material = other.material;
+        midgameScore = other.midgameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+
+        if (undoMoves.length < other.undoSize) {
+            undoMoves = new int[other.undoMoves.length];
+            undoStates = new int[other.undoMoves.length];
+            undoKeys = new long[other.undoMoves.length];
+        }
+        System.arraycopy(other.undoMoves, 0, undoMoves, 0, other.undoSize);
+        System.arraycopy(other.undoStates, 0, undoStates, 0, other.undoSize);
+        System.arraycopy(other.undoKeys, 0, undoKeys, 0, other.undoSize);
+        undoSize = other.undoSize;
+    }
+}
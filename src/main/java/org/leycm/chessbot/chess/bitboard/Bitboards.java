@@ -0,0 +1,87 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Square and bitboard helpers.
+ * <p>
+ * Squares use the same layout as {@code ChessBoard}: {@code square = y * 8 + x},
+ * where {@code x = 0} is the a-file and {@code y = 0} is the 8th rank.
+ */
+public final class Bitboards {
+
+    public static final long EMPTY = 0L;
+    public static final long ALL = -1L;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+
+    public static final long RANK_8 = 0xFFL;
+    public static final long RANK_1 = RANK_8 << 56;
+
+    @Contract(pure = true)
+    public static int square(int x, int y) {
+        return (y << 3) | x;
+    }
+
+    @Contract(pure = true)
+    public static int x(int square) {
+        return square & 7;
+    }
+
+    @Contract(pure = true)
+    public static int y(int square) {
+        return square >>> 3;
+    }
+
+    @Contract(pure = true)
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    @Contract(pure = true)
+    public static boolean contains(long bitboard, int square) {
+        return (bitboard & (1L << square)) != 0;
+    }
+
+    /**
+     * The lowest set square of a bitboard, or 64 if it is empty.
+     */
+    @Contract(pure = true)
+    public static int first(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    @Contract(pure = true)
+    public static long withoutFirst(long bitboard) {
+        return bitboard & (bitboard - 1);
+    }
+
+    @Contract(pure = true)
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+
+    @Contract(pure = true)
+    public static boolean isValidSquare(int x, int y) {
+        return x >= 0 && x < 8 && y >= 0 && y < 8;
+    }
+
+    public static @NotNull String toVisualString(long bitboard) {
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < 8; y++) {
+            sb.append((char) ('8' - y)).append("  ");
+            for (int x = 0; x < 8; x++) {
+                sb.append(contains(bitboard, square(x, y)) ? 'x' : '.').append("  ");
+            }
+            sb.append("\n");
+        }
+        sb.append("   a  b  c  d  e  f  g  h\n");
+        return sb.toString();
+    }
+
+    private Bitboards() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,176 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation.
+ * <p>
+ * The text is scanned and written character by character, so neither direction allocates.
+ * When reading, the halfmove clock and fullmove number may be omitted and default to 0 and 1.
+ */
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_CHARS = "pnbrqk";
+
+    /**
+     * Replaces the content of {@code position} with the position described by {@code fen}.
+     * An en passant square is only kept if a pawn of the side to move can actually capture there.
+     * @throws IllegalArgumentException if the text is not a valid FEN
+     */
+    public static void load(@NotNull BitboardPosition position, @NotNull CharSequence fen) {
+        position.clear();
+
+        int length = fen.length();
+        int index = 0;
+        int square = 0;
+
+        for (; index < length && fen.charAt(index) != ' '; index++) {
+            char c = fen.charAt(index);
+            if (c == '/') continue;
+
+            if (c >= '1' && c <= '8') {
+                square += c - '0';
+                continue;
+            }
+
+            int type = PIECE_CHARS.indexOf(Character.toLowerCase(c)) + 1;
+            if (type == Piece.NONE || square >= 64) throw invalid(fen);
+            position.put(Piece.code(type, Character.isUpperCase(c)), square++);
+        }
+        if (square != 64) throw invalid(fen);
+
+        index = skipSpaces(fen, index);
+        if (index >= length) throw invalid(fen);
+        char side = fen.charAt(index++);
+        if (side != 'w' && side != 'b') throw invalid(fen);
+        position.setWhiteToMove(side == 'w');
+
+        int castlingRights = 0;
+        for (index = skipSpaces(fen, index); index < length && fen.charAt(index) != ' '; index++) {
+            castlingRights |= switch (fen.charAt(index)) {
+                case 'K' -> BitboardPosition.WHITE_KING_SIDE;
+                case 'Q' -> BitboardPosition.WHITE_QUEEN_SIDE;
+                case 'k' -> BitboardPosition.BLACK_KING_SIDE;
+                case 'q' -> BitboardPosition.BLACK_QUEEN_SIDE;
+                case '-' -> 0;
+                default -> throw invalid(fen);
+            };
+        }
+        position.setCastlingRights(castlingRights);
+
+        index = skipSpaces(fen, index);
+        if (index < length && fen.charAt(index) != '-') {
+            if (index + 1 >= length) throw invalid(fen);
+            int x = fen.charAt(index) - 'a';
+            int y = '8' - fen.charAt(index + 1);
+            if (!Bitboards.isValidSquare(x, y)) throw invalid(fen);
+
+            int enPassant = Bitboards.square(x, y);
+            boolean white = position.isWhiteToMove();
+            if ((Attacks.pawn(enPassant, !white) & position.pieces(Piece.PAWN, white)) != 0) {
+                position.setEnPassantSquare(enPassant);
+            }
+            index += 2;
+        } else {
+            index++;
+        }
+
+        index = skipSpaces(fen, index);
+        if (index < length) {
+            int halfmoveClock = 0;
+            for (; index < length && fen.charAt(index) != ' '; index++) {
+                halfmoveClock = halfmoveClock * 10 + digit(fen, index);
+            }
+            position.setHalfmoveClock(halfmoveClock);
+        }
+
+        index = skipSpaces(fen, index);
+        if (index < length) {
+            int fullmoveNumber = 0;
+            for (; index < length && fen.charAt(index) != ' '; index++) {
+                fullmoveNumber = fullmoveNumber * 10 + digit(fen, index);
+            }
+            position.setFullmoveNumber(Math.max(1, fullmoveNumber));
+        }
+    }
+
+    /**
+     * Writes the FEN of {@code position} to {@code out}. The en passant square is only written
+     * when a capture en passant is actually possible, as the position only keeps it then.
+     */
+    public static void write(@NotNull BitboardPosition position, @NotNull Appendable out) throws IOException {
+        for (int y = 0; y < 8; y++) {
+            int empty = 0;
+            for (int x = 0; x < 8; x++) {
+                int piece = position.pieceAt(Bitboards.square(x, y));
+                if (piece == Piece.NONE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(Piece.toChar(piece));
+            }
+            if (empty > 0) out.append((char) ('0' + empty));
+            if (y < 7) out.append('/');
+        }
+
+        out.append(' ').append(position.isWhiteToMove() ? 'w' : 'b').append(' ');
+
+        int castlingRights = position.getCastlingRights();
+        if (castlingRights == 0) {
+            out.append('-');
+        } else {
+            if ((castlingRights & BitboardPosition.WHITE_KING_SIDE) != 0) out.append('K');
+            if ((castlingRights & BitboardPosition.WHITE_QUEEN_SIDE) != 0) out.append('Q');
+            if ((castlingRights & BitboardPosition.BLACK_KING_SIDE) != 0) out.append('k');
+            if ((castlingRights & BitboardPosition.BLACK_QUEEN_SIDE) != 0) out.append('q');
+        }
+        out.append(' ');
+
+        int enPassant = position.getEnPassantSquare();
+        if (enPassant == -1) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + Bitboards.x(enPassant))).append((char) ('8' - Bitboards.y(enPassant)));
+        }
+
+        out.append(' ');
+        appendNumber(out, position.getHalfmoveClock());
+        out.append(' ');
+        appendNumber(out, position.getFullmoveNumber());
+    }
+
+    private static void appendNumber(Appendable out, int value) throws IOException {
+        int divisor = 1;
+        while (value / divisor >= 10) divisor *= 10;
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    private static int skipSpaces(CharSequence fen, int index) {
+        while (index < fen.length() && fen.charAt(index) == ' ') index++;
+        return index;
+    }
+
+    private static int digit(CharSequence fen, int index) {
+        char c = fen.charAt(index);
+        if (c < '0' || c > '9') throw invalid(fen);
+        return c - '0';
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen) {
+        return new IllegalArgumentException("Invalid FEN: " + fen);
+    }
+
+    private Fen() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
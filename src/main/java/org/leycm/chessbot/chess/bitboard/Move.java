@@ -0,0 +1,121 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Moves packed into a single {@code int}.
+ * <pre>
+ * bits  0-5   from square
+ * bits  6-11  to square
+ * bits 12-14  flag ({@link #NORMAL}, {@link #DOUBLE_PUSH}, {@link #CASTLING}, {@link #EN_PASSANT}, {@link #PROMOTION})
+ * bits 15-17  promotion piece type
+ * bits 18-20  moved piece type
+ * bits 21-23  captured piece type
+ * </pre>
+ * The piece types are informational (move ordering, notation) and are filled in by the move generator;
+ * {@link #base(int)} strips them when two moves from different sources are compared.
+ * {@link #NONE} is never a real move because its from and to squares are equal.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int NORMAL = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int CASTLING = 2;
+    public static final int EN_PASSANT = 3;
+    public static final int PROMOTION = 4;
+
+    private static final int BASE_MASK = (1 << 18) - 1;
+
+    @Contract(pure = true)
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    @Contract(pure = true)
+    public static int of(int from, int to, int flag) {
+        return from | (to << 6) | (flag << 12);
+    }
+
+    @Contract(pure = true)
+    public static int promotion(int from, int to, int promotionType) {
+        return from | (to << 6) | (PROMOTION << 12) | (promotionType << 15);
+    }
+
+    @Contract(pure = true)
+    public static int of(int from, int to, int flag, int promotionType, int movedType, int capturedType) {
+        return from | (to << 6) | (flag << 12) | (promotionType << 15) | (movedType << 18) | (capturedType << 21);
+    }
+
+    /**
+     * The move without its piece type information, i.e. only squares, flag and promotion.
+     */
+    @Contract(pure = true)
+    public static int base(int move) {
+        return move & BASE_MASK;
+    }
+
+    @Contract(pure = true)
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    @Contract(pure = true)
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    @Contract(pure = true)
+    public static int flag(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    @Contract(pure = true)
+    public static int promotionType(int move) {
+        return (move >>> 15) & 7;
+    }
+
+    @Contract(pure = true)
+    public static int movedType(int move) {
+        return (move >>> 18) & 7;
+    }
+
+    @Contract(pure = true)
+    public static int capturedType(int move) {
+        return (move >>> 21) & 7;
+    }
+
+    @Contract(pure = true)
+    public static boolean isPromotion(int move) {
+        return flag(move) == PROMOTION;
+    }
+
+    @Contract(pure = true)
+    public static boolean isCapture(int move) {
+        return capturedType(move) != Piece.NONE;
+    }
+
+    /**
+     * The move in UCI coordinate notation, e.g. {@code e2e4} or {@code e7e8q}.
+     */
+    public static @NotNull String toUci(int move) {
+        StringBuilder sb = new StringBuilder(5);
+        appendSquare(sb, from(move));
+        appendSquare(sb, to(move));
+        if (isPromotion(move)) {
+            sb.append(Character.toLowerCase(Piece.toChar(promotionType(move))));
+        }
+        return sb.toString();
+    }
+
+    public static void appendSquare(@NotNull StringBuilder sb, int square) {
+        sb.append((char) ('a' + Bitboards.x(square)));
+        sb.append((char) ('8' - Bitboards.y(square)));
+    }
+
+    private Move() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,284 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Generates packed {@link Move}s straight into a {@link MoveList}.
+ * <p>
+ * {@link #generate} produces pseudo-legal moves: they follow the movement rules of each piece (including
+ * double pushes, promotions and en passant) but may leave the own king in check.
+ * {@link #generateLegal} computes checkers and pinned pieces up front and only emits legal moves,
+ * including castling, so no move has to be played and taken back to test it.
+ */
+public final class MoveGenerator {
+
+    private static final long WHITE_DOUBLE_PUSH_RANK = 0xFFL << 40;
+    private static final long BLACK_DOUBLE_PUSH_RANK = 0xFFL << 16;
+
+    private static final int[][] CASTLING_MOVES = {
+            // right, king from, king to, rook from
+            {BitboardPosition.WHITE_KING_SIDE, 60, 62, 63},
+            {BitboardPosition.WHITE_QUEEN_SIDE, 60, 58, 56},
+            {BitboardPosition.BLACK_KING_SIDE, 4, 6, 7},
+            {BitboardPosition.BLACK_QUEEN_SIDE, 4, 2, 0}
+    };
+
+    private static final int[] PROMOTION_TYPES = {Piece.QUEEN, Piece.ROOK, Piece.BISHOP, Piece.KNIGHT};
+
+    /**
+     * Generates all pseudo-legal moves of the side to move.
+     */
+    public static void generate(@NotNull BitboardPosition position, @NotNull MoveList moves) {
+        generate(position, position.isWhiteToMove(), Bitboards.ALL, moves);
+    }
+
+    /**
+     * Generates the pseudo-legal moves of one color, limited to pieces standing on {@code fromMask}.
+     * En passant is only generated when {@code white} is the side to move.
+     */
+    public static void generate(@NotNull BitboardPosition position, boolean white, long fromMask, @NotNull MoveList moves) {
+        moves.clear();
+
+        long own = position.occupancy(white);
+        long enemies = position.occupancy(!white);
+        long occupied = position.occupied();
+        long targets = ~own;
+
+        int enPassant = white == position.isWhiteToMove() ? position.getEnPassantSquare() : -1;
+        generatePawnMoves(position, white, position.pieces(Piece.PAWN, white) & fromMask, enemies, occupied, Bitboards.ALL, enPassant, moves);
+
+        for (long knights = position.pieces(Piece.KNIGHT, white) & fromMask; knights != 0; knights = Bitboards.withoutFirst(knights)) {
+            int from = Bitboards.first(knights);
+            addMoves(position, from, Piece.KNIGHT, Attacks.knight(from) & targets, moves);
+        }
+
+        for (long bishops = position.pieces(Piece.BISHOP, white) & fromMask; bishops != 0; bishops = Bitboards.withoutFirst(bishops)) {
+            int from = Bitboards.first(bishops);
+            addMoves(position, from, Piece.BISHOP, Attacks.bishop(from, occupied) & targets, moves);
+        }
+
+        for (long rooks = position.pieces(Piece.ROOK, white) & fromMask; rooks != 0; rooks = Bitboards.withoutFirst(rooks)) {
+            int from = Bitboards.first(rooks);
+            addMoves(position, from, Piece.ROOK, Attacks.rook(from, occupied) & targets, moves);
+        }
+
+        for (long queens = position.pieces(Piece.QUEEN, white) & fromMask; queens != 0; queens = Bitboards.withoutFirst(queens)) {
+            int from = Bitboards.first(queens);
+            addMoves(position, from, Piece.QUEEN, Attacks.queen(from, occupied) & targets, moves);
+        }
+
+        for (long kings = position.pieces(Piece.KING, white) & fromMask; kings != 0; kings = Bitboards.withoutFirst(kings)) {
+            int from = Bitboards.first(kings);
+            addMoves(position, from, Piece.KING, Attacks.king(from) & targets, moves);
+        }
+    }
+
+    /**
+     * Generates only the legal moves of the side to move.
+     */
+    public static void generateLegal(@NotNull BitboardPosition position, @NotNull MoveList moves) {
+        generateLegal(position, position.isWhiteToMove(), Bitboards.ALL, moves);
+    }
+
+    /**
+     * Generates the legal moves of one color, limited to pieces standing on {@code fromMask}.
+     * En passant and castling are only generated when {@code white} is the side to move.
+     * Without a king every pseudo-legal move counts as legal.
+     */
+    public static void generateLegal(@NotNull BitboardPosition position, boolean white, long fromMask, @NotNull MoveList moves) {
+        generateLegal(position, white, fromMask, Bitboards.ALL, moves);
+    }
+
+    /**
+     * Generates the legal moves of one color from {@code fromMask} onto {@code toMask}, e.g. only the captures
+     * (enemy pieces plus the en passant square) or a single move to check whether it is legal.
+     * Castling counts as a move onto the king's destination square.
+     */
+    public static void generateLegal(@NotNull BitboardPosition position, boolean white, long fromMask, long toMask,
+                                     @NotNull MoveList moves) {
+        int king = position.kingSquare(white);
+        if (king == -1) {
+            generate(position, white, fromMask, moves);
+            for (int i = moves.size() - 1; i >= 0; i--) {
+                if (!Bitboards.contains(toMask, Move.to(moves.get(i)))) moves.removeAt(i);
+            }
+            return;
+        }
+
+        moves.clear();
+
+        long own = position.occupancy(white);
+        long enemies = position.occupancy(!white);
+        long occupied = position.occupied();
+
+        if (Bitboards.contains(fromMask, king)) {
+            long danger = position.attackedSquares(!white, occupied ^ Bitboards.bit(king));
+            addMoves(position, king, Piece.KING, Attacks.king(king) & ~own & ~danger & toMask, moves);
+
+            if (white == position.isWhiteToMove() && !Bitboards.contains(danger, king)) {
+                generateCastling(position, white, king, danger, toMask, moves);
+            }
+        }
+
+        long checkers = position.attackersOf(king, !white, occupied);
+        if (Long.bitCount(checkers) > 1) return;
+
+        long checkMask = checkers == 0 ? Bitboards.ALL : checkers | Attacks.between(king, Bitboards.first(checkers));
+        long pinned = pinnedPieces(position, white, king, own, enemies);
+        long targets = ~own & checkMask & toMask;
+
+        long pawns = position.pieces(Piece.PAWN, white) & fromMask;
+        generatePawnMoves(position, white, pawns & ~pinned, enemies, occupied, targets, -1, moves);
+        for (long pinnedPawns = pawns & pinned; pinnedPawns != 0; pinnedPawns = Bitboards.withoutFirst(pinnedPawns)) {
+            int from = Bitboards.first(pinnedPawns);
+            generatePawnMoves(position, white, Bitboards.bit(from), enemies, occupied, targets & Attacks.line(king, from), -1, moves);
+        }
+        if (white == position.isWhiteToMove() && position.getEnPassantSquare() != -1
+                && Bitboards.contains(toMask, position.getEnPassantSquare())) {
+            generateLegalEnPassant(position, white, king, pawns, occupied, checkMask, moves);
+        }
+
+        for (long knights = position.pieces(Piece.KNIGHT, white) & fromMask & ~pinned; knights != 0; knights = Bitboards.withoutFirst(knights)) {
+            int from = Bitboards.first(knights);
+            addMoves(position, from, Piece.KNIGHT, Attacks.knight(from) & targets, moves);
+        }
+
+        for (long bishops = position.pieces(Piece.BISHOP, white) & fromMask; bishops != 0; bishops = Bitboards.withoutFirst(bishops)) {
+            int from = Bitboards.first(bishops);
+            addMoves(position, from, Piece.BISHOP, Attacks.bishop(from, occupied) & targets & pinMask(pinned, king, from), moves);
+        }
+
+        for (long rooks = position.pieces(Piece.ROOK, white) & fromMask; rooks != 0; rooks = Bitboards.withoutFirst(rooks)) {
+            int from = Bitboards.first(rooks);
+            addMoves(position, from, Piece.ROOK, Attacks.rook(from, occupied) & targets & pinMask(pinned, king, from), moves);
+        }
+
+        for (long queens = position.pieces(Piece.QUEEN, white) & fromMask; queens != 0; queens = Bitboards.withoutFirst(queens)) {
+            int from = Bitboards.first(queens);
+            addMoves(position, from, Piece.QUEEN, Attacks.queen(from, occupied) & targets & pinMask(pinned, king, from), moves);
+        }
+    }
+
+    /**
+     * Own pieces that are the only piece between the king and an enemy slider on the same line.
+     */
+    private static long pinnedPieces(BitboardPosition position, boolean white, int king, long own, long enemies) {
+        long queens = position.pieces(Piece.QUEEN, !white);
+        long snipers = (Attacks.rook(king, enemies) & (position.pieces(Piece.ROOK, !white) | queens))
+                | (Attacks.bishop(king, enemies) & (position.pieces(Piece.BISHOP, !white) | queens));
+
+        long pinned = 0L;
+        for (; snipers != 0; snipers = Bitboards.withoutFirst(snipers)) {
+            long blockers = Attacks.between(king, Bitboards.first(snipers)) & (own | enemies);
+            if (Long.bitCount(blockers) == 1) pinned |= blockers & own;
+        }
+        return pinned;
+    }
+
+    private static long pinMask(long pinned, int king, int from) {
+        return Bitboards.contains(pinned, from) ? Attacks.line(king, from) : Bitboards.ALL;
+    }
+
+    private static void generateCastling(BitboardPosition position, boolean white, int king, long danger, long toMask,
+                                         MoveList moves) {
+        int rook = Piece.code(Piece.ROOK, white);
+        for (int[] castling : CASTLING_MOVES) {
+            if ((position.getCastlingRights() & castling[0]) == 0 || king != castling[1]) continue;
+            if (position.pieceAt(castling[3]) != rook) continue;
+
+            int kingTo = castling[2];
+            if (!Bitboards.contains(toMask, kingTo)) continue;
+            if ((Attacks.between(king, castling[3]) & position.occupied()) != 0) continue;
+            if (((Attacks.between(king, kingTo) | Bitboards.bit(kingTo)) & danger) != 0) continue;
+
+            moves.add(Move.of(king, kingTo, Move.CASTLING, Piece.NONE, Piece.KING, Piece.NONE));
+        }
+    }
+
+    /**
+     * En passant removes two pieces from the capturer's rank at once, so a pin along that rank
+     * is only visible after the capture; the resulting occupancy is tested directly.
+     */
+    private static void generateLegalEnPassant(BitboardPosition position, boolean white, int king, long pawns,
+                                               long occupied, long checkMask, MoveList moves) {
+        int to = position.getEnPassantSquare();
+        int captured = white ? to + 8 : to - 8;
+        if (!Bitboards.contains(checkMask, to) && !Bitboards.contains(checkMask, captured)) return;
+
+        long queens = position.pieces(Piece.QUEEN, !white);
+        long rooks = position.pieces(Piece.ROOK, !white) | queens;
+        long bishops = position.pieces(Piece.BISHOP, !white) | queens;
+
+        for (long capturers = Attacks.pawn(to, !white) & pawns; capturers != 0; capturers = Bitboards.withoutFirst(capturers)) {
+            int from = Bitboards.first(capturers);
+            long after = (occupied ^ Bitboards.bit(from) ^ Bitboards.bit(captured)) | Bitboards.bit(to);
+
+            if ((Attacks.rook(king, after) & rooks) != 0 || (Attacks.bishop(king, after) & bishops) != 0) continue;
+            moves.add(Move.of(from, to, Move.EN_PASSANT, Piece.NONE, Piece.PAWN, Piece.PAWN));
+        }
+    }
+
+    /**
+     * Generates pawn moves of {@code pawns} whose target square lies in {@code targets};
+     * en passant onto {@code enPassant} is added unfiltered unless it is -1.
+     */
+    private static void generatePawnMoves(BitboardPosition position, boolean white, long pawns, long enemies,
+                                          long occupied, long targets, int enPassant, MoveList moves) {
+        if (pawns == 0) return;
+
+        long empty = ~occupied;
+        int forward = white ? -8 : 8;
+
+        long singlePushes = (white ? pawns >>> 8 : pawns << 8) & empty;
+        long doublePushes = white
+                ? ((singlePushes & WHITE_DOUBLE_PUSH_RANK) >>> 8) & empty & targets
+                : ((singlePushes & BLACK_DOUBLE_PUSH_RANK) << 8) & empty & targets;
+        singlePushes &= targets;
+
+        for (; singlePushes != 0; singlePushes = Bitboards.withoutFirst(singlePushes)) {
+            int to = Bitboards.first(singlePushes);
+            addPawnMove(to - forward, to, Piece.NONE, moves);
+        }
+
+        for (; doublePushes != 0; doublePushes = Bitboards.withoutFirst(doublePushes)) {
+            int to = Bitboards.first(doublePushes);
+            moves.add(Move.of(to - 2 * forward, to, Move.DOUBLE_PUSH, Piece.NONE, Piece.PAWN, Piece.NONE));
+        }
+
+        for (; pawns != 0; pawns = Bitboards.withoutFirst(pawns)) {
+            int from = Bitboards.first(pawns);
+            long attacks = Attacks.pawn(from, white);
+
+            for (long captures = attacks & enemies & targets; captures != 0; captures = Bitboards.withoutFirst(captures)) {
+                int to = Bitboards.first(captures);
+                addPawnMove(from, to, Piece.type(position.pieceAt(to)), moves);
+            }
+
+            if (enPassant != -1 && Bitboards.contains(attacks, enPassant)) {
+                moves.add(Move.of(from, enPassant, Move.EN_PASSANT, Piece.NONE, Piece.PAWN, Piece.PAWN));
+            }
+        }
+    }
+
+    private static void addPawnMove(int from, int to, int capturedType, MoveList moves) {
+        int toY = Bitboards.y(to);
+        if (toY == 0 || toY == 7) {
+            for (int promotionType : PROMOTION_TYPES) {
+                moves.add(Move.of(from, to, Move.PROMOTION, promotionType, Piece.PAWN, capturedType));
+            }
+        } else {
+            moves.add(Move.of(from, to, Move.NORMAL, Piece.NONE, Piece.PAWN, capturedType));
+        }
+    }
+
+    private static void addMoves(BitboardPosition position, int from, int movedType, long targets, MoveList moves) {
+        for (; targets != 0; targets = Bitboards.withoutFirst(targets)) {
+            int to = Bitboards.first(targets);
+            moves.add(Move.of(from, to, Move.NORMAL, Piece.NONE, movedType, Piece.type(position.pieceAt(to))));
+        }
+    }
+
+    private MoveGenerator() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,86 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.Contract;
+
+import java.io.Serializable;
+
+/**
+ * A reusable buffer of packed {@link Move}s backed by an {@code int[]}.
+ * <p>
+ * Meant to be allocated once per caller (or per search ply) and refilled with {@link #clear()},
+ * so generating moves does not allocate.
+ */
+public final class MoveList implements Serializable {
+
+    /**
+     * No legal chess position has more moves than this.
+     */
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves = new int[MAX_MOVES];
+    private int size;
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    @Contract(pure = true)
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    @Contract(pure = true)
+    public int size() {
+        return size;
+    }
+
+    @Contract(pure = true)
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes the move at {@code index} by moving the last move into its place.
+     */
+    public void removeAt(int index) {
+        moves[index] = moves[--size];
+    }
+
+    /**
+     * Finds a move by squares, flag and promotion, ignoring the piece type information.
+     * @return the generated move, or {@link Move#NONE}
+     */
+    @Contract(pure = true)
+    public int find(int move) {
+        int base = Move.base(move);
+        for (int i = 0; i < size; i++) {
+            if (Move.base(moves[i]) == base) return moves[i];
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Finds a move by its from and to squares only.
+     * @return the first matching move, or {@link Move#NONE}
+     */
+    @Contract(pure = true)
+    public int find(int from, int to) {
+        for (int i = 0; i < size; i++) {
+            if (Move.from(moves[i]) == from && Move.to(moves[i]) == to) return moves[i];
+        }
+        return Move.NONE;
+    }
+
+    public void copyFrom(MoveList other) {
+        System.arraycopy(other.moves, 0, moves, 0, other.size);
+        size = other.size;
+    }
+}
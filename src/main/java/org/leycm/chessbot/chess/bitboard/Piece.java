@@ -0,0 +1,84 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Compact piece codes used by the bitboard position.
+ * <p>
+ * A code is the piece type in the low three bits plus {@link #BLACK_FLAG} for black pieces,
+ * so {@code 0} always means an empty square.
+ */
+public final class Piece {
+
+    public static final int NONE = 0;
+    public static final int PAWN = 1;
+    public static final int KNIGHT = 2;
+    public static final int BISHOP = 3;
+    public static final int ROOK = 4;
+    public static final int QUEEN = 5;
+    public static final int KING = 6;
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int BLACK_FLAG = 8;
+    public static final int CODE_COUNT = 16;
+
+    private static final int[] LEVELS = {0, 1, 3, 3, 5, 9, 1000, 0};
+    private static final char[] CHARS = {'.', 'P', 'N', 'B', 'R', 'Q', 'K', '?'};
+
+    @Contract(pure = true)
+    public static int code(int type, boolean white) {
+        return white ? type : type | BLACK_FLAG;
+    }
+
+    @Contract(pure = true)
+    public static int type(int code) {
+        return code & 7;
+    }
+
+    @Contract(pure = true)
+    public static int color(int code) {
+        return code >>> 3;
+    }
+
+    @Contract(pure = true)
+    public static boolean isWhite(int code) {
+        return code != NONE && (code & BLACK_FLAG) == 0;
+    }
+
+    @Contract(pure = true)
+    public static int colorIndex(boolean white) {
+        return white ? WHITE : BLACK;
+    }
+
+    /**
+     * The material level of a piece type, matching the levels the {@code ChessPiece} classes use.
+     */
+    @Contract(pure = true)
+    public static int level(int code) {
+        return LEVELS[code & 7];
+    }
+
+    /**
+     * The level of a piece signed by its color: positive for white, negative for black.
+     */
+    @Contract(pure = true)
+    public static int signedLevel(int code) {
+        int level = LEVELS[code & 7];
+        return (code & BLACK_FLAG) == 0 ? level : -level;
+    }
+
+    /**
+     * The FEN character of a piece, upper case for white and lower case for black.
+     */
+    @Contract(pure = true)
+    public static char toChar(int code) {
+        char c = CHARS[code & 7];
+        return (code & BLACK_FLAG) == 0 ? c : Character.toLowerCase(c);
+    }
+
+    private Piece() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,159 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Material and piece-square values that {@link BitboardPosition} sums up incrementally.
+ * <p>
+ * Every value is signed, positive for white, so a position's sums are white's advantage. Material
+ * is the piece level times 100 (a pawn being 100, the king not counted). The piece-square bonuses
+ * exist in a midgame and an endgame version, which an evaluation blends by the game phase: knights
+ * and bishops count 1, rooks 2 and queens 4, so the start position has the full {@link #MAX_PHASE}.
+ * <p>
+ * The tables are written from white's side with a8 first, which is also the square order here;
+ * black uses them mirrored vertically.
+ */
+public final class PieceSquareTables {
+
+    public static final int MAX_PHASE = 24;
+
+    private static final int[] PHASES = {0, 0, 1, 1, 2, 4, 0};
+
+    private static final int[] PAWN = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0
+    };
+
+    private static final int[] PAWN_ENDGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             15,  15,  15,  15,  15,  15,  15,  15,
+              5,   5,   5,   5,   5,   5,   5,   5,
+              0,   0,   0,   0,   0,   0,   0,   0,
+              0,   0,   0,   0,   0,   0,   0,   0
+    };
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0
+    };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+
+    private static final int[] KING = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20
+    };
+
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[][] MIDGAME_TABLES = {null, PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING};
+    private static final int[][] ENDGAME_TABLES = {null, PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME};
+
+    private static final int[] MATERIAL = new int[Piece.CODE_COUNT];
+    private static final int[] PHASE = new int[Piece.CODE_COUNT];
+    private static final int[][] MIDGAME = new int[Piece.CODE_COUNT][64];
+    private static final int[][] ENDGAME = new int[Piece.CODE_COUNT][64];
+
+    static {
+        for (int piece = 0; piece < Piece.CODE_COUNT; piece++) {
+            int type = Piece.type(piece);
+            if (type == Piece.NONE || type > Piece.KING) continue;
+
+            boolean white = Piece.isWhite(piece);
+            int sign = white ? 1 : -1;
+
+            MATERIAL[piece] = type == Piece.KING ? 0 : sign * Piece.level(type) * 100;
+            PHASE[piece] = PHASES[type];
+            for (int square = 0; square < 64; square++) {
+                int tableSquare = white ? square : square ^ 56;
+                MIDGAME[piece][square] = sign * MIDGAME_TABLES[type][tableSquare];
+                ENDGAME[piece][square] = sign * ENDGAME_TABLES[type][tableSquare];
+            }
+        }
+    }
+
+    @Contract(pure = true)
+    public static int material(int piece) {
+        return MATERIAL[piece];
+    }
+
+    @Contract(pure = true)
+    public static int phase(int piece) {
+        return PHASE[piece];
+    }
+
+    @Contract(pure = true)
+    public static int midgame(int piece, int square) {
+        return MIDGAME[piece][square];
+    }
+
+    @Contract(pure = true)
+    public static int endgame(int piece, int square) {
+        return ENDGAME[piece][square];
+    }
+
+    private PieceSquareTables() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
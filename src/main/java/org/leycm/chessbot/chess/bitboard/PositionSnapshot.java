@@ -0,0 +1,78 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serializable;
+
+/**
+ * An immutable, packed copy of a {@link BitboardPosition}.
+ * <p>
+ * The placement is stored as the occupancy bitboard plus one 4-bit piece code per occupied square
+ * (in square order, 16 per {@code long}), so a full board takes two longs. Side to move, castling
+ * rights, en passant square and both clocks share one more long. Restoring is a handful of
+ * {@code put} calls and does not replay any moves.
+ */
+public final class PositionSnapshot implements Serializable {
+
+    private final long occupied;
+    private final long[] pieces;
+    private final long state;
+
+    private PositionSnapshot(long occupied, long[] pieces, long state) {
+        this.occupied = occupied;
+        this.pieces = pieces;
+        this.state = state;
+    }
+
+    @Contract("_ -> new")
+    public static @NotNull PositionSnapshot of(@NotNull BitboardPosition position) {
+        long occupied = position.occupied();
+        long[] pieces = new long[(Bitboards.count(occupied) + 15) / 16];
+
+        int index = 0;
+        for (long bits = occupied; bits != 0; bits = Bitboards.withoutFirst(bits), index++) {
+            pieces[index >>> 4] |= (long) position.pieceAt(Bitboards.first(bits)) << ((index & 15) * 4);
+        }
+
+        long state = (position.isWhiteToMove() ? 1L : 0L)
+                | ((long) position.getCastlingRights() << 1)
+                | ((long) (position.getEnPassantSquare() + 1) << 5)
+                | ((long) position.getHalfmoveClock() << 12)
+                | ((long) position.getFullmoveNumber() << 32);
+
+        return new PositionSnapshot(occupied, pieces, state);
+    }
+
+    /**
+     * Replaces the content of {@code position} with this snapshot. The undo stack is cleared.
+     */
+    public void restoreTo(@NotNull BitboardPosition position) {
+        position.clear();
+
+        int index = 0;
+        for (long bits = occupied; bits != 0; bits = Bitboards.withoutFirst(bits), index++) {
+            position.put(pieceAt(index), Bitboards.first(bits));
+        }
+
+        position.setWhiteToMove((state & 1) != 0);
+        position.setCastlingRights((int) (state >>> 1) & 0xF);
+        position.setEnPassantSquare(((int) (state >>> 5) & 0x7F) - 1);
+        position.setHalfmoveClock((int) (state >>> 12) & 0xFFFFF);
+        position.setFullmoveNumber((int) (state >>> 32));
+    }
+
+    @Contract(pure = true)
+    public long occupied() {
+        return occupied;
+    }
+
+    @Contract(pure = true)
+    public boolean isWhiteToMove() {
+        return (state & 1) != 0;
+    }
+
+    private int pieceAt(int index) {
+        return (int) (pieces[index >>> 4] >>> ((index & 15) * 4)) & 0xF;
+    }
+}
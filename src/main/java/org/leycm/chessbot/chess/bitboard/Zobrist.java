@@ -0,0 +1,68 @@
+package org.leycm.chessbot.chess.bitboard;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of positions.
+ * <p>
+ * A position's key is the XOR of one key per (piece, square), the side-to-move key when black is
+ * to move, the key of its castling rights and the en passant file key when a capture en passant
+ * is possible. The keys are generated from a fixed seed so hashes are stable between runs.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECES = new long[Piece.CODE_COUNT][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x1EC3C4E55B07L);
+
+        for (int piece = 0; piece < Piece.CODE_COUNT; piece++) {
+            if (Piece.type(piece) == Piece.NONE || Piece.type(piece) > Piece.KING) continue;
+            for (int square = 0; square < 64; square++) {
+                PIECES[piece][square] = random.nextLong();
+            }
+        }
+
+        for (int i = 1; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    @Contract(pure = true)
+    public static long piece(int piece, int square) {
+        return PIECES[piece][square];
+    }
+
+    @Contract(pure = true)
+    public static long castling(int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    /**
+     * The key of an en passant square, or 0 for -1.
+     */
+    @Contract(pure = true)
+    public static long enPassant(int square) {
+        return square == -1 ? 0L : EN_PASSANT_FILE[Bitboards.x(square)];
+    }
+
+    @Contract(pure = true)
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    private Zobrist() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
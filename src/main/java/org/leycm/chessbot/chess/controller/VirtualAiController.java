@@ -2,9 +2,12 @@ package org.leycm.chessbot.chess.controller;
 
 import org.leycm.chessbot.chess.ChessBoard;
 import org.leycm.chessbot.chess.ChessController;
+import org.leycm.chessbot.chess.GameSnapshot;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
 import org.leycm.chessbot.model.ModelLoader;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class VirtualAiController extends ChessController {
 
@@ -12,17 +15,26 @@ public class VirtualAiController extends ChessController {
         super(name, "AiController");
     }
 
-    private boolean aiBusy = false;
+    private final AtomicBoolean aiBusy = new AtomicBoolean();
 
+    /**
+     * Runs on the board's writer thread: copies the position there, searches on another thread with the
+     * current {@link ModelLoader#getBackend() backend} and hands the answer back to the writer.
+     * If the game moved on during the search, the answer is dropped.
+     */
     @Override
     public void onTick(ChessBoard board) {
-        if (aiBusy) return;
-        aiBusy = true;
+        if (!aiBusy.compareAndSet(false, true)) return;
 
-        CompletableFuture.runAsync(() -> {
-            try {ModelLoader.makeBestMove(board);
-            } finally {aiBusy = false;}
-        });
+        GameSnapshot snapshot = board.getGameSnapshot();
+        BitboardPosition position = new BitboardPosition();
+        position.copyFrom(board.getPosition());
+
+        CompletableFuture.supplyAsync(() -> ModelLoader.findBestMove(position))
+                .thenAccept(bestMove -> board.submit(b -> {
+                    if (b.getGameSnapshot().version() == snapshot.version()) ModelLoader.playMove(b, bestMove);
+                }))
+                .whenComplete((_, _) -> aiBusy.set(false));
     }
 
     @Override
@@ -30,4 +42,4 @@ public class VirtualAiController extends ChessController {
         return new VirtualAiController(getName());
     }
 
-}
\ No newline at end of file
+}
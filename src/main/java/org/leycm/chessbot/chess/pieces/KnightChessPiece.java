@@ -1,64 +1,19 @@
 package org.leycm.chessbot.chess.pieces;
 
-import org.leycm.chessbot.chess.ChessBoard;
 import org.leycm.chessbot.chess.ChessPiece;
-import org.leycm.chessbot.util.ArrayUtils;
-
-import java.util.ArrayList;
-import java.util.List;
+import org.leycm.chessbot.chess.bitboard.Piece;
 
 public class KnightChessPiece extends ChessPiece {
 
-    public KnightChessPiece(boolean isWhite, ChessBoard board) {
-        super(isWhite, board, 3, "knight_chess_piece", "Knight", '♞');
-    }
-
-    @Override
-    public boolean isValidMove(int targetX, int targetY) {
-        return ArrayUtils.containsInArray(new int[]{targetX, targetY}, getValidFields());
-    }
-
-    @Override
-    public int[][] getValidFields() {
-        List<int[]> fields = new ArrayList<>();
-        int currentX = getX();
-        int currentY = getY();
-
-        int[][] knightMoves = {
-                {+2, +1}, {+2, -1}, {-2, +1}, {-2, -1},
-                {+1, +2}, {+1, -2}, {-1, +2}, {-1, -2}
-        };
-
-        for (int[] move : knightMoves) {
-            int newX = currentX + move[0];
-            int newY = currentY + move[1];
+    public static final KnightChessPiece WHITE = new KnightChessPiece(true);
+    public static final KnightChessPiece BLACK = new KnightChessPiece(false);
 
-            if (canMoveTo(newX, newY)) {
-                fields.add(new int[]{newX, newY});
-            }
-        }
-
-        return fields.toArray(new int[][]{});
+    private KnightChessPiece(boolean isWhite) {
+        super(isWhite, Piece.KNIGHT, 3, "knight_chess_piece", "Knight", '♞');
     }
 
-    public boolean isFieldValid(int targetX, int targetY) {
-        return canMoveTo(targetX, targetY);
-    }
-
-    public List<int[]> getPossibleFields(int offsetX, int offsetY) {
-        List<int[]> possibleFields = new ArrayList<>();
-        int currentX = getX();
-        int currentY = getY();
-
-        if (Math.abs(offsetX) == 1 && offsetY == 0) {
-            possibleFields.add(new int[]{currentX + offsetX * 2, currentY + 1});
-            possibleFields.add(new int[]{currentX + offsetX * 2, currentY - 1});
-        } else if (offsetX == 0 && Math.abs(offsetY) == 1) {
-            possibleFields.add(new int[]{currentX + 1, currentY + offsetY * 2});
-            possibleFields.add(new int[]{currentX - 1, currentY + offsetY * 2});
-        }
-
-        return possibleFields;
+    public static KnightChessPiece of(boolean isWhite) {
+        return isWhite ? WHITE : BLACK;
     }
 
     @Override
@@ -0,0 +1,132 @@
+package org.leycm.chessbot.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.NotNull;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The built-in chess engine, a Java alternative to the external UCI model process.
+ * <p>
+ * Searches run one at a time per engine. The transposition table is kept between searches, so
+ * consecutive moves of a game reuse what earlier searches found.
+ * <p>
+ * With more than one thread the engine searches "Lazy SMP" style: the calling thread runs the main
+ * search while helper threads search the same root, every second one starting a depth ahead. They
+ * share nothing but the transposition table and the stop signal, so the helpers only help by filling
+ * the table with results the main search can cut off with. The main search decides the move; once it
+ * is done the helpers are stopped and only their node counts and statistics are added to the result.
+ */
+public final class Engine implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_DEPTH = Search.MAX_PLY - 1;
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    @Getter private final TranspositionTable transpositionTable;
+    @Getter private final int threads;
+
+    /**
+     * The selective search techniques to use, from the next search on.
+     */
+    @Getter @Setter private volatile SearchOptions options = SearchOptions.ALL;
+
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final Search[] searches;
+    private final ExecutorService helpers;
+    private boolean closed;
+
+    public Engine() {
+        this(TranspositionTable.DEFAULT_SIZE_MB, 1);
+    }
+
+    /**
+     * @param threads number of searching threads, the calling thread included
+     */
+    public Engine(int hashSizeMb, int threads) {
+        this.transpositionTable = new TranspositionTable(hashSizeMb);
+        this.threads = Math.max(1, threads);
+        this.searches = new Search[this.threads];
+        for (int i = 0; i < this.threads; i++) searches[i] = new Search(transpositionTable, stopped);
+
+        this.helpers = this.threads == 1 ? null : Executors.newFixedThreadPool(this.threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "engine-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Searches the position for at most {@code timeMillis}. The position is not modified.
+     */
+    public synchronized @NotNull SearchResult search(@NotNull BitboardPosition position, long timeMillis) {
+        return search(position, timeMillis, DEFAULT_MAX_DEPTH);
+    }
+
+    public synchronized @NotNull SearchResult search(@NotNull BitboardPosition position, long timeMillis, int maxDepth) {
+        SearchOptions options = this.options;
+        transpositionTable.newSearch();
+        stopped.set(false);
+
+        List<Future<SearchResult>> helperResults = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads && !closed; i++) {
+            Search helper = searches[i];
+            int startDepth = 1 + (i & 1);
+            helperResults.add(helpers.submit(() -> helper.search(position, timeMillis, maxDepth, startDepth, options)));
+        }
+
+        SearchResult result = searches[0].search(position, timeMillis, maxDepth, 1, options);
+        if (helperResults.isEmpty()) return result;
+
+        stopped.set(true);
+        long nodes = result.nodes();
+        SearchStats stats = result.stats();
+        for (Future<SearchResult> helperResult : helperResults) {
+            try {
+                SearchResult helper = helperResult.get();
+                nodes += helper.nodes();
+                stats = stats.plus(helper.stats());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                System.out.println("[Engine] Helper search failed: " + e.getCause());
+            }
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes, result.millis(), stats);
+    }
+
+    /**
+     * Forgets everything learned in earlier searches, e.g. before starting a new game.
+     */
+    public synchronized void clearHash() {
+        transpositionTable.clear();
+    }
+
+    /**
+     * Makes a running search return its current result right away.
+     */
+    public void stop() {
+        stopped.set(true);
+    }
+
+    /**
+     * Stops a running search, waits for it to return and shuts the helper threads down. Searches started
+     * afterwards, e.g. by a caller that fetched the engine just before it was replaced, still work but run
+     * on the calling thread only.
+     */
+    @Override
+    public void close() {
+        stop();
+        synchronized (this) {
+            closed = true;
+            if (helpers != null) helpers.shutdown();
+        }
+    }
+}
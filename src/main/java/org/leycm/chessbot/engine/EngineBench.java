@@ -0,0 +1,119 @@
+package org.leycm.chessbot.engine;
+
+import org.leycm.chessbot.chess.Perft;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Fen;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the engine on the {@link Perft#REFERENCES} positions, every run with a fresh transposition table.
+ * <ul>
+ *     <li>{@code threads}: searches to a fixed depth with 1, 2, 4, 8, ... threads and prints the time to
+ *     reach the depth and the nodes per second.</li>
+ *     <li>{@code pruning}: searches single-threaded with no selective technique, each one alone and all
+ *     together, and prints the nodes needed for a fixed depth and the average depth reached in a fixed time.</li>
+ * </ul>
+ * Usage: {@code EngineBench threads [depth] [maxThreads] [hashMb]} or {@code EngineBench pruning [depth] [timeMillis]}.
+ */
+public final class EngineBench {
+
+    private static final long NO_TIME_LIMIT = TimeUnit.HOURS.toMillis(1);
+    private static final int HASH_MB = 64;
+
+    private static final List<SearchOptions> TECHNIQUES = List.of(
+            SearchOptions.NONE,
+            SearchOptions.NONE.withNullMove(true),
+            SearchOptions.NONE.withLateMoveReductions(true),
+            SearchOptions.NONE.withFutilityPruning(true),
+            SearchOptions.ALL
+    );
+
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : "threads";
+
+        BitboardPosition[] positions = new BitboardPosition[Perft.REFERENCES.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new BitboardPosition();
+            Fen.load(positions[i], Perft.REFERENCES.get(i).fen());
+        }
+
+        switch (mode) {
+            case "threads" -> threads(positions,
+                    args.length > 1 ? Integer.parseInt(args[1]) : 7,
+                    args.length > 2 ? Integer.parseInt(args[2]) : 8,
+                    args.length > 3 ? Integer.parseInt(args[3]) : HASH_MB);
+            case "pruning" -> pruning(positions,
+                    args.length > 1 ? Integer.parseInt(args[1]) : 6,
+                    args.length > 2 ? Long.parseLong(args[2]) : 500);
+            default -> System.out.println("Unknown mode " + mode + ", expected threads or pruning");
+        }
+    }
+
+    private static void threads(BitboardPosition[] positions, int depth, int maxThreads, int hashMb) {
+        // warm-up, so the first measured run is not the one paying for the JIT
+        run(positions, depth, NO_TIME_LIMIT, 1, hashMb, SearchOptions.ALL, false);
+
+        long baseMillis = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            Totals totals = run(positions, depth, NO_TIME_LIMIT, threads, hashMb, SearchOptions.ALL, true);
+
+            if (threads == 1) baseMillis = totals.millis;
+            System.out.printf("depth %d, %d threads: %,d ms to depth (%.2fx), %,d nodes, %,d nps, %d MB hash %d permille full%n",
+                    depth, threads, totals.millis, (double) baseMillis / Math.max(1, totals.millis),
+                    totals.nodes, totals.nodes * 1000 / Math.max(1, totals.millis), totals.hashMb, totals.hashFull);
+        }
+    }
+
+    private static void pruning(BitboardPosition[] positions, int depth, long timeMillis) {
+        run(positions, depth, NO_TIME_LIMIT, 1, HASH_MB, SearchOptions.ALL, false);
+
+        long baseNodes = 0;
+        double baseDepth = 0;
+        for (SearchOptions options : TECHNIQUES) {
+            Totals fixedDepth = run(positions, depth, NO_TIME_LIMIT, 1, HASH_MB, options, false);
+            Totals fixedTime = run(positions, Engine.DEFAULT_MAX_DEPTH, timeMillis, 1, HASH_MB, options, false);
+            double averageDepth = (double) fixedTime.depths / positions.length;
+
+            if (options.equals(SearchOptions.NONE)) {
+                baseNodes = fixedDepth.nodes;
+                baseDepth = averageDepth;
+            }
+            System.out.printf("%-22s depth %d: %,13d nodes (%5.2fx fewer) in %,7d ms | %d ms: average depth %4.1f (%+.1f)%n",
+                    options, depth, fixedDepth.nodes, (double) baseNodes / Math.max(1, fixedDepth.nodes), fixedDepth.millis,
+                    timeMillis, averageDepth, averageDepth - baseDepth);
+        }
+    }
+
+    private static Totals run(BitboardPosition[] positions, int depth, long timeMillis, int threads, int hashMb,
+                              SearchOptions options, boolean print) {
+        Totals totals = new Totals();
+
+        try (Engine engine = new Engine(hashMb, threads)) {
+            engine.setOptions(options);
+            for (int i = 0; i < positions.length; i++) {
+                SearchResult result = engine.search(positions[i], timeMillis, depth);
+                totals.nodes += result.nodes();
+                totals.millis += result.millis();
+                totals.depths += result.depth();
+                if (print) System.out.printf("  %-10s %s%n", Perft.REFERENCES.get(i).name(), result);
+            }
+            totals.hashMb = engine.getTranspositionTable().getSizeMb();
+            totals.hashFull = engine.getTranspositionTable().getHashFull();
+        }
+        return totals;
+    }
+
+    private static final class Totals {
+        long nodes;
+        long millis;
+        int depths;
+        int hashMb;
+        int hashFull;
+    }
+
+    private EngineBench() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,64 @@
+package org.leycm.chessbot.engine;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Piece;
+import org.leycm.chessbot.chess.bitboard.PieceSquareTables;
+
+/**
+ * Static evaluation of a position in centipawns.
+ * <p>
+ * Material, counted with the piece levels the rest of the bot uses (a pawn being 100), plus
+ * piece-square bonuses blended from their midgame and endgame values by the game phase. All of
+ * them are sums the {@link BitboardPosition} keeps up to date as pieces move, so an evaluation
+ * is a few reads and one multiplication instead of a pass over the board. The {@link PawnStructure}
+ * is tapered the same way and, in a search, read from a {@link PawnHashTable}.
+ */
+public final class Evaluator {
+
+    /**
+     * Centipawn value of a piece type.
+     */
+    @Contract(pure = true)
+    public static int value(int type) {
+        return type == Piece.KING ? 0 : Piece.level(type) * 100;
+    }
+
+    /**
+     * The evaluation from the point of view of the side to move, computing the pawn structure from scratch.
+     */
+    public static int evaluate(@NotNull BitboardPosition position) {
+        return evaluate(position, pawnStructure(position));
+    }
+
+    /**
+     * The evaluation from the point of view of the side to move, with the pawn structure cached in {@code pawns}.
+     */
+    public static int evaluate(@NotNull BitboardPosition position, @NotNull PawnHashTable pawns) {
+        long pawnScore = pawns.probe(position.getPawnKey());
+        if (pawnScore == PawnHashTable.MISS) {
+            pawnScore = pawnStructure(position);
+            pawns.store(position.getPawnKey(), pawnScore);
+        }
+        return evaluate(position, pawnScore);
+    }
+
+    private static int evaluate(@NotNull BitboardPosition position, long pawnScore) {
+        int phase = Math.min(position.getPhase(), PieceSquareTables.MAX_PHASE);
+        int midgame = position.getMidgameScore() + PawnHashTable.midgame(pawnScore);
+        int endgame = position.getEndgameScore() + PawnHashTable.endgame(pawnScore);
+        int positional = (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+
+        int score = position.getMaterial() + positional;
+        return position.isWhiteToMove() ? score : -score;
+    }
+
+    private static long pawnStructure(@NotNull BitboardPosition position) {
+        return PawnStructure.evaluate(position.pieces(Piece.PAWN, true), position.pieces(Piece.PAWN, false));
+    }
+
+    private Evaluator() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
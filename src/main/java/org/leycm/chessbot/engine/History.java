@@ -0,0 +1,69 @@
+package org.leycm.chessbot.engine;
+
+import org.leycm.chessbot.chess.bitboard.Move;
+import org.leycm.chessbot.chess.bitboard.Piece;
+
+import java.util.Arrays;
+
+/**
+ * What a search learned about quiet moves that caused beta cutoffs, for the {@link MovePicker}:
+ * <ul>
+ *     <li>killer moves, the last two cutoff moves per ply,</li>
+ *     <li>counter moves, the last cutoff move played in reply to an opponent move (by its squares),</li>
+ *     <li>history scores per color and from/to squares, growing with the square of the depth of each cutoff.</li>
+ * </ul>
+ * Belongs to one search thread.
+ */
+final class History {
+
+    private static final int MAX_SCORE = 1 << 20;
+
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+    private final int[] counterMoves = new int[64 * 64];
+    private final int[][] scores = new int[2][64 * 64];
+
+    /**
+     * Called at the start of a search: killers belong to the plies of the previous root, history is
+     * only worth half as much as what the new search finds.
+     */
+    void newSearch() {
+        for (int[] ply : killers) Arrays.fill(ply, Move.NONE);
+        for (int[] color : scores) {
+            for (int i = 0; i < color.length; i++) color[i] >>= 1;
+        }
+    }
+
+    int killer(int ply, int slot) {
+        return killers[ply][slot];
+    }
+
+    int counterMove(int previousMove) {
+        return previousMove == Move.NONE ? Move.NONE : counterMoves[squares(previousMove)];
+    }
+
+    int score(boolean white, int move) {
+        return scores[Piece.colorIndex(white)][squares(move)];
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff.
+     */
+    void update(boolean white, int ply, int depth, int move, int previousMove) {
+        if (Move.base(killers[ply][0]) != Move.base(move)) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        if (previousMove != Move.NONE) counterMoves[squares(previousMove)] = move;
+
+        int[] color = scores[Piece.colorIndex(white)];
+        int index = squares(move);
+        color[index] += depth * depth;
+        if (color[index] > MAX_SCORE) {
+            for (int i = 0; i < color.length; i++) color[i] >>= 1;
+        }
+    }
+
+    private static int squares(int move) {
+        return Move.from(move) << 6 | Move.to(move);
+    }
+}
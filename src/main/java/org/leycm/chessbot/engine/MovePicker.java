@@ -0,0 +1,196 @@
+package org.leycm.chessbot.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Bitboards;
+import org.leycm.chessbot.chess.bitboard.Move;
+import org.leycm.chessbot.chess.bitboard.MoveGenerator;
+import org.leycm.chessbot.chess.bitboard.MoveList;
+import org.leycm.chessbot.chess.bitboard.Piece;
+
+/**
+ * Hands out the legal moves of a node best-first, in stages:
+ * <ol>
+ *     <li>the transposition table move,</li>
+ *     <li>captures, most valuable victim first and least valuable attacker among equal victims (MVV-LVA),</li>
+ *     <li>the two killer moves of the ply and the counter move to the opponent's last move,</li>
+ *     <li>the remaining quiet moves, queen promotions first and then by history score.</li>
+ * </ol>
+ * A stage is only generated once the previous one is used up, so after an early cutoff the quiet moves
+ * are often never generated at all. The single moves of the first and third stage are checked by
+ * generating just that move. Moves already handed out are skipped in the later stages.
+ * <p>
+ * One picker is kept per ply and reused; {@link #init} starts it on a new node, {@link #initCaptures}
+ * on a quiescence node, which only gets the capture stage.
+ */
+final class MovePicker {
+
+    private static final int TABLE_MOVE = 0;
+    private static final int CAPTURES = 1;
+    private static final int REFUTATIONS = 2;
+    private static final int QUIETS = 3;
+    private static final int DONE = 4;
+
+    private static final int QUEEN_PROMOTION_SCORE = 1 << 30;
+
+    private final MoveList moves = new MoveList();
+    private final int[] scores = new int[MoveList.MAX_MOVES];
+    private final MoveList single = new MoveList();
+    private final int[] refutations = new int[3];
+
+    private BitboardPosition position;
+    private History history;
+    private int tableMove;
+    private int stage;
+    private int index;
+    private int refutationIndex;
+    private boolean generated;
+    private boolean capturesOnly;
+
+    /**
+     * @param tableMove a move to try first, or {@link Move#NONE}
+     */
+    void init(@NotNull BitboardPosition position, @NotNull History history, int tableMove, int ply) {
+        this.position = position;
+        this.history = history;
+        this.tableMove = legal(tableMove);
+        this.stage = TABLE_MOVE;
+        this.generated = false;
+        this.capturesOnly = false;
+
+        refutations[0] = history.killer(ply, 0);
+        refutations[1] = history.killer(ply, 1);
+        refutations[2] = history.counterMove(position.lastMove());
+        refutationIndex = 0;
+    }
+
+    void initCaptures(@NotNull BitboardPosition position) {
+        this.position = position;
+        this.tableMove = Move.NONE;
+        this.stage = CAPTURES;
+        this.generated = false;
+        this.capturesOnly = true;
+    }
+
+    /**
+     * @return the next move, or {@link Move#NONE} when all moves have been handed out
+     */
+    int next() {
+        while (true) {
+            switch (stage) {
+                case TABLE_MOVE -> {
+                    stage = CAPTURES;
+                    if (tableMove != Move.NONE) return tableMove;
+                }
+                case CAPTURES -> {
+                    if (!generated) {
+                        generate(true);
+                        for (int i = 0; i < moves.size(); i++) scores[i] = mvvLva(moves.get(i));
+                    }
+                    int move = pickBest();
+                    if (move != Move.NONE) return move;
+                    stage = capturesOnly ? DONE : REFUTATIONS;
+                }
+                case REFUTATIONS -> {
+                    while (refutationIndex < refutations.length) {
+                        int move = refutations[refutationIndex++];
+                        if (Move.isCapture(move) || isDuplicateRefutation(move, refutationIndex - 1)) continue;
+                        move = legal(move);
+                        if (move != Move.NONE && !Move.isCapture(move)) return move;
+                    }
+                    stage = QUIETS;
+                    generated = false;
+                }
+                case QUIETS -> {
+                    if (!generated) {
+                        generate(false);
+                        for (int i = 0; i < moves.size(); i++) scores[i] = quietScore(moves.get(i));
+                    }
+                    int move = pickBest();
+                    if (move != Move.NONE) return move;
+                    stage = DONE;
+                }
+                default -> {
+                    return Move.NONE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the moves onto enemy pieces and the en passant square, or the moves onto the other squares.
+     * Both can contain moves of the other kind onto the en passant square, which are dropped.
+     */
+    private void generate(boolean captures) {
+        boolean white = position.isWhiteToMove();
+        long enemies = position.occupancy(!white);
+        long enPassant = position.getEnPassantSquare() == -1 ? 0L : Bitboards.bit(position.getEnPassantSquare());
+
+        MoveGenerator.generateLegal(position, white, Bitboards.ALL, captures ? enemies | enPassant : ~enemies, moves);
+        for (int i = moves.size() - 1; i >= 0; i--) {
+            if (Move.isCapture(moves.get(i)) != captures) moves.removeAt(i);
+        }
+        index = 0;
+        generated = true;
+    }
+
+    /**
+     * Selection sort, one step per call: most nodes are cut off after a few moves, so sorting the rest is wasted.
+     */
+    private int pickBest() {
+        while (index < moves.size()) {
+            int best = index;
+            for (int i = index + 1; i < moves.size(); i++) {
+                if (scores[i] > scores[best]) best = i;
+            }
+
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            scores[best] = scores[index];
+            index++;
+
+            if (!isHandedOut(move)) return move;
+        }
+        return Move.NONE;
+    }
+
+    private boolean isHandedOut(int move) {
+        int base = Move.base(move);
+        if (base == Move.base(tableMove)) return true;
+        if (stage != QUIETS) return false;
+        for (int refutation : refutations) {
+            if (base == Move.base(refutation)) return true;
+        }
+        return false;
+    }
+
+    private boolean isDuplicateRefutation(int move, int index) {
+        if (move == Move.NONE || Move.base(move) == Move.base(tableMove)) return true;
+        for (int i = 0; i < index; i++) {
+            if (Move.base(refutations[i]) == Move.base(move)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the generated (fully packed) move if {@code move} is legal here, otherwise {@link Move#NONE}
+     */
+    private int legal(int move) {
+        if (move == Move.NONE) return Move.NONE;
+        MoveGenerator.generateLegal(position, position.isWhiteToMove(),
+                Bitboards.bit(Move.from(move)), Bitboards.bit(Move.to(move)), single);
+        return single.find(move);
+    }
+
+    private static int mvvLva(int move) {
+        int score = Piece.level(Move.capturedType(move)) * 1024 - Piece.level(Move.movedType(move));
+        return Move.isPromotion(move) ? score + Piece.level(Move.promotionType(move)) * 1024 : score;
+    }
+
+    private int quietScore(int move) {
+        if (Move.isPromotion(move)) {
+            return Move.promotionType(move) == Piece.QUEEN ? QUEEN_PROMOTION_SCORE : Integer.MIN_VALUE;
+        }
+        return history.score(position.isWhiteToMove(), move);
+    }
+}
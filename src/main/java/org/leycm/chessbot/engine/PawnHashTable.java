@@ -0,0 +1,109 @@
+package org.leycm.chessbot.engine;
+
+import org.jetbrains.annotations.Contract;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+
+import java.util.Arrays;
+
+/**
+ * A small cache of {@link PawnStructure} scores by {@link BitboardPosition#getPawnKey() pawn key}.
+ * <p>
+ * Pawns move rarely compared to the other pieces, so most positions of a search share their pawn
+ * structure with many others and the score only has to be computed once. Every {@link Search} owns
+ * its own table; it is never shared between threads and so needs neither locks nor atomics. An entry
+ * is the full pawn key and the packed score, and a store always replaces what was in its slot.
+ */
+public final class PawnHashTable {
+
+    public static final int DEFAULT_ENTRIES = 1 << 14;
+
+    /**
+     * Returned by {@link #probe} if there is no entry; no packed score has this value.
+     */
+    public static final long MISS = Long.MIN_VALUE;
+
+    private final long[] keys;
+    private final long[] scores;
+    private final int mask;
+
+    private long probes;
+    private long hits;
+
+    public PawnHashTable() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    /**
+     * @param entries the number of entries, rounded down to a power of two
+     */
+    public PawnHashTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        this.keys = new long[size];
+        this.scores = new long[size];
+        this.mask = size - 1;
+        clear();
+    }
+
+    /**
+     * Empties the table and resets the hit counters.
+     */
+    public void clear() {
+        Arrays.fill(scores, MISS);
+        probes = 0;
+        hits = 0;
+    }
+
+    /**
+     * @return the packed score stored for {@code pawnKey}, or {@link #MISS}
+     */
+    public long probe(long pawnKey) {
+        probes++;
+
+        int index = (int) pawnKey & mask;
+        long score = scores[index];
+        if (score == MISS || keys[index] != pawnKey) return MISS;
+
+        hits++;
+        return score;
+    }
+
+    public void store(long pawnKey, long score) {
+        int index = (int) pawnKey & mask;
+        keys[index] = pawnKey;
+        scores[index] = score;
+    }
+
+    @Contract(pure = true)
+    public static long pack(int midgame, int endgame) {
+        return ((long) midgame << 32) | (endgame & 0xFFFFFFFFL);
+    }
+
+    @Contract(pure = true)
+    public static int midgame(long score) {
+        return (int) (score >> 32);
+    }
+
+    @Contract(pure = true)
+    public static int endgame(long score) {
+        return (int) score;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the share of probes that found an entry, between 0 and 1
+     */
+    public double getHitRate() {
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    public int getSize() {
+        return keys.length;
+    }
+}
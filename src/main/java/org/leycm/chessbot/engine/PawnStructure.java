@@ -0,0 +1,109 @@
+package org.leycm.chessbot.engine;
+
+import org.jetbrains.annotations.Contract;
+import org.leycm.chessbot.chess.bitboard.Bitboards;
+
+/**
+ * Scores the pawn structure: doubled, isolated and passed pawns.
+ * <p>
+ * The score only depends on where the pawns stand, which is why it can be cached by pawn key in a
+ * {@link PawnHashTable}. It is white's advantage, packed with {@link PawnHashTable#pack} as a midgame
+ * and an endgame value, since passed pawns are worth far more once the pieces are gone.
+ */
+public final class PawnStructure {
+
+    private static final int DOUBLED_MIDGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+
+    /**
+     * Passed pawn bonus by rank, counted from the pawn's own side (a pawn on its start square is on rank 1).
+     */
+    private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 90, 130, 0};
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    private static final long[][] PASSED_MASKS = new long[2][64];
+
+    static {
+        for (int x = 0; x < 8; x++) {
+            FILES[x] = Bitboards.FILE_A << x;
+        }
+        for (int x = 0; x < 8; x++) {
+            ADJACENT_FILES[x] = (x > 0 ? FILES[x - 1] : 0L) | (x < 7 ? FILES[x + 1] : 0L);
+        }
+
+        for (int square = 0; square < 64; square++) {
+            int y = Bitboards.y(square);
+            long files = FILES[Bitboards.x(square)] | ADJACENT_FILES[Bitboards.x(square)];
+            // white pawns move towards y = 0, black pawns towards y = 7
+            PASSED_MASKS[0][square] = files & ((1L << (y * 8)) - 1);
+            PASSED_MASKS[1][square] = y == 7 ? 0L : files & (-1L << ((y + 1) * 8));
+        }
+    }
+
+    /**
+     * @return white's pawn structure score, packed with {@link PawnHashTable#pack}
+     */
+    @Contract(pure = true)
+    public static long evaluate(long whitePawns, long blackPawns) {
+        int midgame = 0;
+        int endgame = 0;
+
+        for (int x = 0; x < 8; x++) {
+            int white = Bitboards.count(whitePawns & FILES[x]);
+            int black = Bitboards.count(blackPawns & FILES[x]);
+
+            if (white > 1) {
+                midgame += DOUBLED_MIDGAME * (white - 1);
+                endgame += DOUBLED_ENDGAME * (white - 1);
+            }
+            if (black > 1) {
+                midgame -= DOUBLED_MIDGAME * (black - 1);
+                endgame -= DOUBLED_ENDGAME * (black - 1);
+            }
+
+            if ((whitePawns & ADJACENT_FILES[x]) == 0) {
+                midgame += ISOLATED_MIDGAME * white;
+                endgame += ISOLATED_ENDGAME * white;
+            }
+            if ((blackPawns & ADJACENT_FILES[x]) == 0) {
+                midgame -= ISOLATED_MIDGAME * black;
+                endgame -= ISOLATED_ENDGAME * black;
+            }
+        }
+
+        for (long bits = whitePawns; bits != 0; bits = Bitboards.withoutFirst(bits)) {
+            int square = Bitboards.first(bits);
+            if ((blackPawns & PASSED_MASKS[0][square]) != 0 || isBehindOwnPawn(whitePawns, PASSED_MASKS[0][square], square)) continue;
+
+            int rank = 7 - Bitboards.y(square);
+            midgame += PASSED_MIDGAME[rank];
+            endgame += PASSED_ENDGAME[rank];
+        }
+
+        for (long bits = blackPawns; bits != 0; bits = Bitboards.withoutFirst(bits)) {
+            int square = Bitboards.first(bits);
+            if ((whitePawns & PASSED_MASKS[1][square]) != 0 || isBehindOwnPawn(blackPawns, PASSED_MASKS[1][square], square)) continue;
+
+            int rank = Bitboards.y(square);
+            midgame -= PASSED_MIDGAME[rank];
+            endgame -= PASSED_ENDGAME[rank];
+        }
+
+        return PawnHashTable.pack(midgame, endgame);
+    }
+
+    /**
+     * Only the front pawn of doubled pawns counts as passed.
+     */
+    private static boolean isBehindOwnPawn(long ownPawns, long passedMask, int square) {
+        return (ownPawns & passedMask & FILES[Bitboards.x(square)]) != 0;
+    }
+
+    private PawnStructure() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
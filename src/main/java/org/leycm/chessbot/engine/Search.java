@@ -0,0 +1,356 @@
+package org.leycm.chessbot.engine;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Move;
+import org.leycm.chessbot.chess.bitboard.MoveList;
+import org.leycm.chessbot.chess.bitboard.Piece;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.leycm.chessbot.engine.TranspositionTable.*;
+
+/**
+ * Negamax alpha-beta search with iterative deepening.
+ * <p>
+ * Depth 1, 2, 3, ... are searched one after another until the time budget runs out; the best move of
+ * each finished iteration is searched first in the next one. An iteration that is cut off by the clock
+ * is thrown away. The first iteration cannot be stopped and always finishes, so there is a move to
+ * play with a real score.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}: a stored result that is deep enough ends the node
+ * right away, and the stored best move is searched first otherwise. Moves are searched in the order
+ * of a {@link MovePicker}.
+ * <p>
+ * After the first move of a node, the other moves are searched with a null window and only searched
+ * again with the full window when they beat alpha (principal variation search). The selective
+ * techniques in {@link SearchOptions} prune or reduce on top of that in null-window nodes.
+ * <p>
+ * At depth 0 a quiescence search takes over, which only plays captures until the position is quiet,
+ * so the evaluation is never taken in the middle of an exchange. Captures that lose material by
+ * {@link StaticExchange static exchange} are not searched there. In check, all evasions are searched.
+ * Evaluations read the pawn structure from a {@link PawnHashTable} that lives as long as the search object.
+ * <p>
+ * A search works on its own copy of the root position and is not thread-safe; use one per thread.
+ * Several searches can share one table and one stop signal to search the same root together
+ * (see {@link Engine}).
+ */
+public final class Search {
+
+    public static final int INFINITE = 32000;
+    public static final int MATE = 31000;
+    public static final int MAX_PLY = 128;
+
+    private static final int CHECK_TIME_MASK = 1023;
+
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int FUTILITY_MAX_DEPTH = 3;
+    private static final int FUTILITY_MARGIN = 150;
+    private static final int RAZORING_MAX_DEPTH = 2;
+    private static final int RAZORING_MARGIN = 300;
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVES = 3;
+
+    /**
+     * Late move reduction by depth and number of the move, growing with the logarithm of both.
+     */
+    private static final int[][] REDUCTIONS = new int[MAX_PLY][MoveList.MAX_MOVES];
+
+    static {
+        for (int depth = 1; depth < MAX_PLY; depth++) {
+            for (int moves = 1; moves < MoveList.MAX_MOVES; moves++) {
+                REDUCTIONS[depth][moves] = (int) (0.75 + Math.log(depth) * Math.log(moves) / 2.25);
+            }
+        }
+    }
+
+    private final BitboardPosition position = new BitboardPosition();
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    private final History history = new History();
+    private final PawnHashTable pawns = new PawnHashTable();
+    private final SearchStats stats = new SearchStats();
+    private final TranspositionTable table;
+
+    private final AtomicBoolean stopped;
+    private long deadline;
+    private long nodes;
+    private int rootBestMove;
+    private boolean iterationCompleted;
+    private SearchOptions options = SearchOptions.ALL;
+
+    /**
+     * @param stopped the stop signal; it is not reset by {@link #search}, its owner clears it before starting
+     */
+    public Search(@NotNull TranspositionTable table, @NotNull AtomicBoolean stopped) {
+        this.table = table;
+        this.stopped = stopped;
+        for (int i = 0; i < MAX_PLY; i++) pickers[i] = new MovePicker();
+    }
+
+    /**
+     * Searches {@code root} (which is copied and left untouched) until {@code timeMillis} have passed
+     * or {@code maxDepth} is done.
+     * @param startDepth the first iteration; helper threads start one deeper so they run ahead of the main search
+     */
+    public @NotNull SearchResult search(@NotNull BitboardPosition root, long timeMillis, int maxDepth, int startDepth,
+                                        @NotNull SearchOptions options) {
+        this.options = options;
+        long start = System.currentTimeMillis();
+        deadline = start + timeMillis;
+        nodes = 0;
+        rootBestMove = Move.NONE;
+        iterationCompleted = false;
+        stats.clear();
+        history.newSearch();
+        long pawnProbes = pawns.getProbes();
+        long pawnHits = pawns.getHits();
+
+        position.copyFrom(root);
+
+        int bestMove = Move.NONE;
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        for (int depth = startDepth; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            int score = negamax(depth, -INFINITE, INFINITE, 0);
+            if (stopped.get() && iterationCompleted) break;
+
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            iterationCompleted = true;
+
+            if (isMateScore(score)) break;
+            // the next iteration takes several times as long as this one, so it would not finish
+            if (System.currentTimeMillis() - start > timeMillis / 2) break;
+        }
+
+        stats.nodes = nodes;
+        stats.pawnProbes = pawns.getProbes() - pawnProbes;
+        stats.pawnHits = pawns.getHits() - pawnHits;
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.currentTimeMillis() - start,
+                new SearchStats().plus(stats));
+    }
+
+    /**
+     * Makes a running search return as soon as possible. Can be called from any thread.
+     */
+    public void stop() {
+        stopped.set(true);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (shouldStop()) return 0;
+
+        if (ply > 0 && (position.getHalfmoveClock() >= 100 || position.isRepetition())) return 0;
+
+        boolean white = position.isWhiteToMove();
+        boolean inCheck = position.isInCheck(white);
+        if (inCheck) depth++;
+
+        if (depth <= 0) return quiescence(alpha, beta, ply);
+        if (ply >= MAX_PLY - 1) return Evaluator.evaluate(position, pawns);
+
+        long key = position.getHashKey();
+        long entry = table.probe(key);
+        int tableMove = Move.NONE;
+        if (entry != 0) {
+            tableMove = move(entry);
+            if (ply > 0 && depth(entry) >= depth) {
+                int score = scoreFromTable(score(entry), ply);
+                int bound = bound(entry);
+                if (bound == EXACT || (bound == LOWER && score >= beta) || (bound == UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        boolean pvNode = beta - alpha > 1;
+        boolean selective = !pvNode && !inCheck && !isMateScore(alpha) && !isMateScore(beta);
+        int staticEval = selective ? Evaluator.evaluate(position, pawns) : 0;
+
+        if (selective && options.futilityPruning()) {
+            // reverse futility: even giving back a margin per ply, the side to move stays above beta
+            if (depth <= FUTILITY_MAX_DEPTH && staticEval - FUTILITY_MARGIN * depth >= beta) {
+                stats.futilityPrunes++;
+                return staticEval;
+            }
+            // razoring: far below alpha, only captures could still help
+            if (depth <= RAZORING_MAX_DEPTH && staticEval + RAZORING_MARGIN * depth < alpha) {
+                int score = quiescence(alpha, beta, ply);
+                if (score < alpha) {
+                    stats.futilityPrunes++;
+                    return score;
+                }
+            }
+        }
+
+        if (selective && options.nullMove() && depth >= NULL_MOVE_MIN_DEPTH && staticEval >= beta
+                && position.lastMove() != Move.NONE && hasPieces(white)) {
+            int reduction = 2 + depth / 4;
+            position.makeNullMove();
+            int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1);
+            position.unmakeNullMove();
+
+            if (stopped.get() && iterationCompleted) return 0;
+            if (score >= beta) {
+                stats.nullMoveCutoffs++;
+                return isMateScore(score) ? beta : score;
+            }
+        }
+
+        // quiet moves near the horizon that cannot bring the score back up to alpha
+        boolean futile = selective && options.futilityPruning() && depth <= FUTILITY_MAX_DEPTH
+                && staticEval + FUTILITY_MARGIN * depth <= alpha;
+
+        MovePicker picker = pickers[ply];
+        picker.init(position, history, ply == 0 && rootBestMove != Move.NONE ? rootBestMove : tableMove, ply);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITE;
+        int bestMove = Move.NONE;
+        int searched = 0;
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            boolean quiet = !Move.isCapture(move) && !Move.isPromotion(move);
+
+            position.makeMove(move);
+            boolean givesCheck = position.isInCheck(!white);
+
+            if (futile && searched > 0 && quiet && !givesCheck) {
+                position.unmakeMove();
+                stats.futilityPrunes++;
+                continue;
+            }
+            searched++;
+
+            int score;
+            if (searched == 1) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                int reduction = 0;
+                if (options.lateMoveReductions() && depth >= LMR_MIN_DEPTH && searched > LMR_MIN_MOVES
+                        && quiet && !inCheck && !givesCheck) {
+                    reduction = Math.min(depth - 2, REDUCTIONS[Math.min(depth, MAX_PLY - 1)][searched] - (pvNode ? 1 : 0));
+                    if (reduction > 0) stats.reductions++;
+                }
+
+                score = -negamax(depth - 1 - Math.max(0, reduction), -alpha - 1, -alpha, ply + 1);
+                if (reduction > 0 && score > alpha) {
+                    stats.reSearches++;
+                    score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                }
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            position.unmakeMove();
+
+            if (stopped.get() && iterationCompleted) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) rootBestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        stats.cutoffs++;
+                        if (searched == 1) stats.firstMoveCutoffs++;
+                        if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                            history.update(white, ply, depth, move, position.lastMove());
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (searched == 0) return inCheck ? -MATE + ply : 0;
+
+        int bound = bestScore >= beta ? LOWER : bestScore > originalAlpha ? EXACT : UPPER;
+        table.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Searches captures only, with the static evaluation as the score of not capturing at all ("stand pat").
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        if (shouldStop()) return 0;
+        stats.quiescenceNodes++;
+
+        boolean inCheck = position.isInCheck(position.isWhiteToMove());
+        if (ply >= MAX_PLY - 1) return inCheck ? 0 : Evaluator.evaluate(position, pawns);
+
+        int bestScore = -INFINITE;
+        MovePicker picker = pickers[ply];
+        if (inCheck) {
+            picker.init(position, history, Move.NONE, ply);
+        } else {
+            bestScore = Evaluator.evaluate(position, pawns);
+            if (bestScore >= beta) return bestScore;
+            if (bestScore > alpha) alpha = bestScore;
+            picker.initCaptures(position);
+        }
+
+        int searched = 0;
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            searched++;
+            if (!inCheck && !StaticExchange.isAtLeast(position, move, 0)) {
+                stats.losingCapturesSkipped++;
+                continue;
+            }
+
+            position.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove();
+
+            if (stopped.get() && iterationCompleted) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        if (inCheck && searched == 0) return -MATE + ply;
+
+        return bestScore;
+    }
+
+    /**
+     * Null-move pruning is wrong in zugzwang, which is mostly a matter of king and pawn endings.
+     */
+    private boolean hasPieces(boolean white) {
+        return (position.occupancy(white) & ~position.pieces(Piece.PAWN, white) & ~position.pieces(Piece.KING, white)) != 0;
+    }
+
+    /**
+     * Counts the node and checks the clock every few nodes. Nothing stops the first iteration, so its
+     * move and score are always those of a finished search.
+     * @return whether the search has to return right away; never before the first iteration is completed
+     */
+    private boolean shouldStop() {
+        if ((++nodes & CHECK_TIME_MASK) == 0 && iterationCompleted
+                && System.currentTimeMillis() >= deadline) {
+            stopped.set(true);
+        }
+        return stopped.get() && iterationCompleted;
+    }
+
+    @Contract(pure = true)
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE - MAX_PLY;
+    }
+
+    /**
+     * A score in UCI style: {@code cp 35}, or {@code mate 3} / {@code mate -2} counted in moves.
+     */
+    public static @NotNull String formatScore(int score) {
+        if (!isMateScore(score)) return "cp " + score;
+        int plies = MATE - Math.abs(score);
+        return "mate " + (score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2);
+    }
+}
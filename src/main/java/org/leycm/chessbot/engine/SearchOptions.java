@@ -0,0 +1,43 @@
+package org.leycm.chessbot.engine;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Switches for the selective parts of the {@link Search}, which trade a little accuracy for a lot of depth.
+ *
+ * @param nullMove           null-move pruning: if passing the turn still fails high at reduced depth, the node is cut
+ * @param lateMoveReductions late quiet moves are searched shallower first and only re-searched if they beat alpha
+ * @param futilityPruning    futility pruning and razoring: near the horizon, nodes and quiet moves that cannot
+ *                           reach alpha (or fall below beta) by a margin are not searched
+ */
+public record SearchOptions(boolean nullMove, boolean lateMoveReductions, boolean futilityPruning) {
+
+    public static final SearchOptions ALL = new SearchOptions(true, true, true);
+    public static final SearchOptions NONE = new SearchOptions(false, false, false);
+
+    @Contract(pure = true)
+    public @NotNull SearchOptions withNullMove(boolean nullMove) {
+        return new SearchOptions(nullMove, lateMoveReductions, futilityPruning);
+    }
+
+    @Contract(pure = true)
+    public @NotNull SearchOptions withLateMoveReductions(boolean lateMoveReductions) {
+        return new SearchOptions(nullMove, lateMoveReductions, futilityPruning);
+    }
+
+    @Contract(pure = true)
+    public @NotNull SearchOptions withFutilityPruning(boolean futilityPruning) {
+        return new SearchOptions(nullMove, lateMoveReductions, futilityPruning);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        if (equals(NONE)) return "none";
+        StringBuilder sb = new StringBuilder();
+        if (nullMove) sb.append("null-move ");
+        if (lateMoveReductions) sb.append("lmr ");
+        if (futilityPruning) sb.append("futility ");
+        return sb.toString().trim();
+    }
+}
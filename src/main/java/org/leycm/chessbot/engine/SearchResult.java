@@ -0,0 +1,25 @@
+package org.leycm.chessbot.engine;
+
+import org.jetbrains.annotations.NotNull;
+import org.leycm.chessbot.chess.bitboard.Move;
+
+/**
+ * The outcome of one search: the move to play and what the last completed iteration found.
+ *
+ * @param bestMove the packed {@link Move}, or {@link Move#NONE} if the side to move has no legal move
+ * @param score    centipawns from the side to move's point of view, see {@link Search#isMateScore(int)}
+ * @param depth    the deepest fully searched iteration
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes, long millis, @NotNull SearchStats stats) {
+
+    public long nodesPerSecond() {
+        return nodes * 1000 / Math.max(1, millis);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return String.format("bestmove %s score %s depth %d nodes %,d time %d ms (%,d nps), %s",
+                bestMove == Move.NONE ? "none" : Move.toUci(bestMove), Search.formatScore(score),
+                depth, nodes, millis, nodesPerSecond(), stats);
+    }
+}
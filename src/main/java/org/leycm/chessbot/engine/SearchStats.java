@@ -0,0 +1,82 @@
+package org.leycm.chessbot.engine;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Counters a search collects to measure its pruning and move ordering.
+ * <p>
+ * The first-move cutoff rate is the share of beta cutoffs caused by the first move searched; the
+ * closer it is to 1, the better the move ordering. The quiescence share is the part of all nodes
+ * spent resolving captures below the nominal depth. The pawn hash hit rate is the share of evaluations
+ * that found their pawn structure score in the {@link PawnHashTable}.
+ */
+@Getter
+public final class SearchStats {
+
+    long nodes;
+    long quiescenceNodes;
+    long cutoffs;
+    long firstMoveCutoffs;
+    long losingCapturesSkipped;
+    long nullMoveCutoffs;
+    long futilityPrunes;
+    long reductions;
+    long reSearches;
+    long pawnProbes;
+    long pawnHits;
+
+    void clear() {
+        nodes = 0;
+        quiescenceNodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        losingCapturesSkipped = 0;
+        nullMoveCutoffs = 0;
+        futilityPrunes = 0;
+        reductions = 0;
+        reSearches = 0;
+        pawnProbes = 0;
+        pawnHits = 0;
+    }
+
+    /**
+     * @return a new instance with the counters of both
+     */
+    @NotNull SearchStats plus(@NotNull SearchStats other) {
+        SearchStats sum = new SearchStats();
+        sum.nodes = nodes + other.nodes;
+        sum.quiescenceNodes = quiescenceNodes + other.quiescenceNodes;
+        sum.cutoffs = cutoffs + other.cutoffs;
+        sum.firstMoveCutoffs = firstMoveCutoffs + other.firstMoveCutoffs;
+        sum.losingCapturesSkipped = losingCapturesSkipped + other.losingCapturesSkipped;
+        sum.nullMoveCutoffs = nullMoveCutoffs + other.nullMoveCutoffs;
+        sum.futilityPrunes = futilityPrunes + other.futilityPrunes;
+        sum.reductions = reductions + other.reductions;
+        sum.reSearches = reSearches + other.reSearches;
+        sum.pawnProbes = pawnProbes + other.pawnProbes;
+        sum.pawnHits = pawnHits + other.pawnHits;
+        return sum;
+    }
+
+    public double getFirstMoveCutoffRate() {
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    public double getQuiescenceShare() {
+        return nodes == 0 ? 0 : (double) quiescenceNodes / nodes;
+    }
+
+    public double getPawnHitRate() {
+        return pawnProbes == 0 ? 0 : (double) pawnHits / pawnProbes;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return String.format("cutoffs %,d (%.1f%% first move), quiescence %.1f%% of nodes (%,d losing captures skipped), "
+                        + "null-move cutoffs %,d, futility %,d, reductions %,d (%,d re-searched), "
+                        + "pawn hash hit rate %.1f%%",
+                cutoffs, getFirstMoveCutoffRate() * 100, getQuiescenceShare() * 100, losingCapturesSkipped,
+                nullMoveCutoffs, futilityPrunes, reductions, reSearches, getPawnHitRate() * 100);
+    }
+}
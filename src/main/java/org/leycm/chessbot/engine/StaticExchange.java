@@ -0,0 +1,75 @@
+package org.leycm.chessbot.engine;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Bitboards;
+import org.leycm.chessbot.chess.bitboard.Move;
+import org.leycm.chessbot.chess.bitboard.Piece;
+
+/**
+ * Static exchange evaluation (SEE): what a move wins or loses in the sequence of captures on its
+ * target square, without searching it.
+ * <p>
+ * Both sides recapture with their least valuable attacker, and each side may stop capturing when
+ * that is better for it. Attackers are looked up with {@link BitboardPosition#attackersOf} against
+ * the shrinking occupancy, so sliders behind a capturer (x-rays) join in. Pieces count with their
+ * {@link Evaluator#value} (a pawn being 100, a king nothing, since legal king captures cannot be
+ * answered); pins are ignored.
+ */
+public final class StaticExchange {
+
+    /**
+     * Whether {@code move}, made by the side to move, wins at least {@code threshold} centipawns
+     * in the exchange on its target square. {@code isAtLeast(position, move, 0)} tells good and equal
+     * captures from losing ones.
+     */
+    @Contract(pure = true)
+    public static boolean isAtLeast(@NotNull BitboardPosition position, int move, int threshold) {
+        if (Move.flag(move) == Move.CASTLING) return threshold <= 0;
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        boolean white = position.isWhiteToMove();
+        int onTarget = Move.isPromotion(move) ? Move.promotionType(move) : Move.movedType(move);
+
+        // what the move gains for certain, minus what it must gain
+        int swap = Evaluator.value(Move.capturedType(move)) - threshold;
+        if (Move.isPromotion(move)) swap += Evaluator.value(onTarget) - Evaluator.value(Piece.PAWN);
+        if (swap < 0) return false;
+
+        // even if the moved piece is taken back right away
+        swap = Evaluator.value(onTarget) - swap;
+        if (swap <= 0) return true;
+
+        long occupied = (position.occupied() ^ Bitboards.bit(from)) | Bitboards.bit(to);
+        if (Move.flag(move) == Move.EN_PASSANT) occupied ^= Bitboards.bit(white ? to + 8 : to - 8);
+
+        boolean side = white;
+        int result = 1;
+        while (true) {
+            side = !side;
+            long attackers = (position.attackersOf(to, true, occupied) | position.attackersOf(to, false, occupied)) & occupied;
+            long own = attackers & position.occupancy(side);
+            if (own == 0) break;
+
+            result ^= 1;
+
+            int type = Piece.PAWN;
+            long capturers = own & position.pieces(type, side);
+            while (capturers == 0) capturers = own & position.pieces(++type, side);
+
+            // the king may only capture last
+            if (type == Piece.KING) return ((attackers & ~own) != 0 ? result ^ 1 : result) == 1;
+
+            swap = Evaluator.value(type) - swap;
+            if (swap < result) break;
+            occupied ^= Bitboards.bit(Bitboards.first(capturers));
+        }
+        return result == 1;
+    }
+
+    private StaticExchange() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
@@ -0,0 +1,203 @@
+package org.leycm.chessbot.engine;
+
+import org.jetbrains.annotations.Contract;
+import org.leycm.chessbot.chess.bitboard.Move;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of search results, shared by all search threads without locks.
+ * <p>
+ * Entries live in one flat {@code long[]}, two longs each: the packed data and the position key XOR
+ * the data. A probe only accepts an entry whose two halves XOR back to the probed key, so an entry
+ * torn by two threads writing at once reads as a miss instead of as wrong data (the "lockless"
+ * scheme). The data packs, from the low bits up:
+ * <pre>
+ *  0-17  best move ({@link Move#base}, 18 bits)
+ * 18-33  score (signed 16 bits, mate scores relative to the stored node)
+ * 34-41  depth (8 bits)
+ * 42-43  bound ({@link #UPPER}, {@link #LOWER} or {@link #EXACT})
+ * 44-51  generation of the search that stored it
+ * </pre>
+ * Entries are grouped in buckets of {@value #BUCKET_SIZE}. A store overwrites the entry of the same
+ * position if there is one, otherwise the entry that is least worth keeping: empty ones first, then
+ * the one with the lowest depth, where every search generation of age costs a few plies.
+ */
+public final class TranspositionTable {
+
+    public static final int UPPER = 1;
+    public static final int LOWER = 2;
+    public static final int EXACT = 3;
+
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    private static final int BUCKET_SIZE = 4;
+    private static final int ENTRY_LONGS = 2;
+    private static final int AGE_WEIGHT = 4;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    public TranspositionTable(int sizeMb) {
+        long entries = ((long) Math.max(1, sizeMb) << 20) / (ENTRY_LONGS * Long.BYTES);
+        int buckets = Integer.highestOneBit((int) Math.min(Integer.MAX_VALUE / (BUCKET_SIZE * ENTRY_LONGS), entries / BUCKET_SIZE));
+        this.table = new long[buckets * BUCKET_SIZE * ENTRY_LONGS];
+        this.bucketMask = buckets - 1;
+    }
+
+    /**
+     * Empties the table and resets the hit counters. Must not run while a search uses the table.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        probes.reset();
+        hits.reset();
+    }
+
+    /**
+     * Marks the start of a new search, so entries of earlier searches are replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * @return the packed data stored for {@code key}, or 0 if there is none
+     */
+    public long probe(long key) {
+        probes.increment();
+
+        int index = bucketIndex(key);
+        for (int i = 0; i < BUCKET_SIZE; i++, index += ENTRY_LONGS) {
+            long data = table[index + 1];
+            if (data != 0 && (table[index] ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param move  the best move found, or {@link Move#NONE} to keep a move already stored for this position
+     * @param score the score as seen from the stored node, see {@link #scoreToTable(int, int)}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int generation = this.generation;
+        int bucket = bucketIndex(key);
+
+        int target = -1;
+        int worstValue = Integer.MAX_VALUE;
+        for (int i = 0, index = bucket; i < BUCKET_SIZE; i++, index += ENTRY_LONGS) {
+            long data = table[index + 1];
+
+            if (data != 0 && (table[index] ^ data) == key) {
+                // same position: keep a deeper result from this search unless the new one is exact
+                if (bound != EXACT && depth(data) > depth + 2 && generation(data) == generation) return;
+                if (move == Move.NONE) move = move(data);
+                target = index;
+                break;
+            }
+
+            int value = data == 0 ? Integer.MIN_VALUE : depth(data) - AGE_WEIGHT * ((generation - generation(data)) & 0xFF);
+            if (value < worstValue) {
+                worstValue = value;
+                target = index;
+            }
+        }
+
+        long data = (Move.base(move) & 0x3FFFFL)
+                | ((long) (score & 0xFFFF) << 18)
+                | ((long) Math.max(0, Math.min(255, depth)) << 34)
+                | ((long) bound << 42)
+                | ((long) generation << 44);
+        table[target + 1] = data;
+        table[target] = key ^ data;
+    }
+
+    private int bucketIndex(long key) {
+        return ((int) (key >>> 32) & bucketMask) * BUCKET_SIZE * ENTRY_LONGS;
+    }
+
+    @Contract(pure = true)
+    public static int move(long data) {
+        return (int) data & 0x3FFFF;
+    }
+
+    @Contract(pure = true)
+    public static int score(long data) {
+        return (short) (data >>> 18);
+    }
+
+    @Contract(pure = true)
+    public static int depth(long data) {
+        return (int) (data >>> 34) & 0xFF;
+    }
+
+    @Contract(pure = true)
+    public static int bound(long data) {
+        return (int) (data >>> 42) & 3;
+    }
+
+    @Contract(pure = true)
+    private static int generation(long data) {
+        return (int) (data >>> 44) & 0xFF;
+    }
+
+    /**
+     * Mate scores count plies from the root; the table stores them counted from the node instead,
+     * so they stay correct when the position is reached at another ply.
+     */
+    @Contract(pure = true)
+    public static int scoreToTable(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) return score + ply;
+        if (score <= -Search.MATE + Search.MAX_PLY) return score - ply;
+        return score;
+    }
+
+    @Contract(pure = true)
+    public static int scoreFromTable(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) return score - ply;
+        if (score <= -Search.MATE + Search.MAX_PLY) return score + ply;
+        return score;
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Hits per probe since the last {@link #clear()}, between 0 and 1.
+     */
+    public double getHitRate() {
+        long probes = getProbes();
+        return probes == 0 ? 0 : (double) getHits() / probes;
+    }
+
+    /**
+     * How full the table is with entries of the current search, in permille, estimated from the first buckets.
+     */
+    public int getHashFull() {
+        int generation = this.generation;
+        int sampled = Math.min(1000, table.length / ENTRY_LONGS);
+        int used = 0;
+        for (int i = 0; i < sampled; i++) {
+            long data = table[i * ENTRY_LONGS + 1];
+            if (data != 0 && generation(data) == generation) used++;
+        }
+        return used * 1000 / sampled;
+    }
+
+    public int getSizeMb() {
+        return (int) ((long) table.length * Long.BYTES >> 20);
+    }
+}
@@ -1,6 +1,8 @@
 package org.leycm.chessbot.gui;
 
 import org.leycm.chessbot.chess.ChessBoard;
+import org.leycm.chessbot.chess.ChessBoardEvent;
+import org.leycm.chessbot.chess.ChessMove;
 import org.leycm.chessbot.chess.ChessPiece;
 import org.leycm.chessbot.chess.controller.VirtualAiController;
 import org.leycm.chessbot.chess.controller.VirtualUiController;
@@ -13,6 +15,7 @@ import javax.swing.Timer;
 import java.awt.*;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ChessJFrameGame {
 
@@ -28,12 +31,15 @@ public class ChessJFrameGame {
     private static int fromY = -1;
     private static boolean blackAI = true;
     private static boolean whiteAI = false;
+    private static final AtomicBoolean aiMoveQueued = new AtomicBoolean();
 
     private static JPanel boardPanel;
+    private static Point lastHovered;
 
     public static void main(String[] args) throws IOException {
 
         currentBoard = new ChessBoard(new VirtualUiController("User"), new VirtualAiController("Hans"));
+        currentBoard.addListener(ChessJFrameGame::onBoardEvent);
 
         theme.put("board.w", new Color(0xFFCE9E));
         theme.put("board.b", new Color(0xD18B47));
@@ -77,64 +83,79 @@ public class ChessJFrameGame {
                 team = !team;
             }*/
 
-            if (!currentBoard.isWhiteTurn() && blackAI) {
-                try {
-                    ModelLoader.makeBestMove(currentBoard);
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
+            // the search runs on the board's actor, not on the EDT; a move still queued is not asked for twice
+            if (!aiMoveQueued.compareAndSet(false, true)) return;
+            currentBoard.submit(board -> {
+                aiMoveQueued.set(false);
+                if (!board.isWhiteTurn() && blackAI) {
+                    ModelLoader.makeBestMove(board);
+                } else if (whiteAI) {
+                    ModelLoader.makeBestMove(board);
                 }
-            } else if (whiteAI) {
-                try {
-                    ModelLoader.makeBestMove(currentBoard);
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            }
+            });
 
         }).start();
 
         createChessBoardUI();
 
-        //Update Visual
-
-        new Timer(50, actionEvent -> {
-
-            jFrame.setVisible(true);
-
-            if (jFrame.getWidth() < 400 || jFrame.getHeight() < 250) {
-                jFrame.setSize(400, 250);
-            }
-
-            int width = jFrame.getWidth() - jFrame.getHeight();
-            jSidePanel.setPreferredSize(new Dimension(width, jFrame.getHeight()));
-            jSidePanel.revalidate();
-            if (jFrame.getHeight() > jFrame.getWidth()) {
-                jFrame.setSize(new Dimension(jFrame.getWidth(), jFrame.getWidth()));
+        // the board is redrawn on board events, mouse input and resizes instead of on a timer
+        jFrame.addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override
+            public void componentResized(java.awt.event.ComponentEvent e) {
+                fitFrame();
+                loadVisualBoard();
             }
+        });
 
-            loadVisualBoard();
-
-            listModel.removeAllElements();
-            currentBoard.getMoveHistory().forEach(move -> {
+        jFrame.setVisible(true);
+        fitFrame();
+    }
 
-                String movedColor = move.getMovedPiece().isWhite() ? "White" : "Black";
+    private static void fitFrame() {
+        if (jFrame.getWidth() < 400 || jFrame.getHeight() < 250) {
+            jFrame.setSize(400, 250);
+        }
 
-                String capturedStringEnd = "";
-                if (move.getCapturedPiece() != null) {
+        int width = jFrame.getWidth() - jFrame.getHeight();
+        jSidePanel.setPreferredSize(new Dimension(width, jFrame.getHeight()));
+        jSidePanel.revalidate();
+        if (jFrame.getHeight() > jFrame.getWidth()) {
+            jFrame.setSize(new Dimension(jFrame.getWidth(), jFrame.getWidth()));
+        }
+    }
 
-                    String capturedColor = move.getCapturedPiece().isWhite() ? "White" : "Black";
-                    capturedStringEnd = " " + move.getCapturedPiece().getName() + " [" + capturedColor + "] ";
+    /**
+     * Keeps the match history in sync with the board: a move adds one line, anything else rebuilds the list.
+     * The board itself is redrawn for every event.
+     */
+    private static void onBoardEvent(ChessBoardEvent event) {
+        SwingUtilities.invokeLater(() -> {
+            if (boardPanel != null) loadVisualBoard();
+            switch (event) {
+                case ChessBoardEvent.MoveApplied applied -> addStringToHistory(describeMove(applied.move()));
+                case ChessBoardEvent.Restarted restarted -> {
+                    listModel.removeAllElements();
+                    restarted.snapshot().moves().forEach(move -> addStringToHistory(describeMove(move)));
                 }
+                case ChessBoardEvent.StateChanged _ -> {}
+            }
+        });
+    }
 
-                String moveS = move.getMovedPiece().getName() + " [" + movedColor + "] " +
-                        move.getFromX() + ", " + move.getFromY() + " ---> " +
-                        move.getToX() + ", " + move.getToY() +
-                        capturedStringEnd;
+    private static String describeMove(ChessMove move) {
+        String movedColor = move.getMovedPiece().isWhite() ? "White" : "Black";
 
-                addStringToHistory(moveS);
-            });
+        String capturedStringEnd = "";
+        if (move.getCapturedPiece() != null) {
 
-        }).start();
+            String capturedColor = move.getCapturedPiece().isWhite() ? "White" : "Black";
+            capturedStringEnd = " " + move.getCapturedPiece().getName() + " [" + capturedColor + "] ";
+        }
+
+        return move.getMovedPiece().getName() + " [" + movedColor + "] " +
+                move.getFromX() + ", " + move.getFromY() + " ---> " +
+                move.getToX() + ", " + move.getToY() +
+                capturedStringEnd;
     }
 
     public static HashMap<Point, ChessPiece> getNormalChessPieces(ChessBoard board) {
@@ -142,31 +163,31 @@ public class ChessJFrameGame {
         HashMap<Point, ChessPiece> pieces = new HashMap<>();
 
         
-        pieces.put(new Point(0, 7), new RookChessPiece(true, board));
-        pieces.put(new Point(1, 7), new KnightChessPiece(true, board));
-        pieces.put(new Point(2, 7), new BishopChessPiece(true, board));
-        pieces.put(new Point(3, 7), new KingChessPiece(true, board));
-        pieces.put(new Point(4, 7), new QueenChessPiece(true, board));
-        pieces.put(new Point(5, 7), new BishopChessPiece(true, board));
-        pieces.put(new Point(6, 7), new KnightChessPiece(true, board));
-        pieces.put(new Point(7, 7), new RookChessPiece(true, board));
+        pieces.put(new Point(0, 7), RookChessPiece.of(true));
+        pieces.put(new Point(1, 7), KnightChessPiece.of(true));
+        pieces.put(new Point(2, 7), BishopChessPiece.of(true));
+        pieces.put(new Point(3, 7), QueenChessPiece.of(true));
+        pieces.put(new Point(4, 7), KingChessPiece.of(true));
+        pieces.put(new Point(5, 7), BishopChessPiece.of(true));
+        pieces.put(new Point(6, 7), KnightChessPiece.of(true));
+        pieces.put(new Point(7, 7), RookChessPiece.of(true));
 
         for (int y = 0; y < 8; y++) {
-            pieces.put(new Point(y, 6), new PawnChessPiece(true, board));
+            pieces.put(new Point(y, 6), PawnChessPiece.of(true));
         }
 
         
-        pieces.put(new Point(0, 0), new RookChessPiece(false, board));
-        pieces.put(new Point(1, 0), new KnightChessPiece(false, board));
-        pieces.put(new Point(2, 0), new BishopChessPiece(false, board));
-        pieces.put(new Point(3, 0), new KingChessPiece(false, board));
-        pieces.put(new Point(4, 0), new QueenChessPiece(false, board));
-        pieces.put(new Point(5, 0), new BishopChessPiece(false, board));
-        pieces.put(new Point(6, 0), new KnightChessPiece(false, board));
-        pieces.put(new Point(7, 0), new RookChessPiece(false, board));
+        pieces.put(new Point(0, 0), RookChessPiece.of(false));
+        pieces.put(new Point(1, 0), KnightChessPiece.of(false));
+        pieces.put(new Point(2, 0), BishopChessPiece.of(false));
+        pieces.put(new Point(3, 0), QueenChessPiece.of(false));
+        pieces.put(new Point(4, 0), KingChessPiece.of(false));
+        pieces.put(new Point(5, 0), BishopChessPiece.of(false));
+        pieces.put(new Point(6, 0), KnightChessPiece.of(false));
+        pieces.put(new Point(7, 0), RookChessPiece.of(false));
 
         for (int y = 0; y < 8; y++) {
-            pieces.put(new Point(y, 1), new PawnChessPiece(false, board));
+            pieces.put(new Point(y, 1), PawnChessPiece.of(false));
         }
 
         return pieces;
@@ -239,20 +260,10 @@ public class ChessJFrameGame {
                 boolean isBlack = (row + col) % 2 != 0;
                 square.setBackground(isBlack ? theme.get("board.w") : theme.get("board.b"));
 
-                HashMap<Point, String> points = new HashMap<>();
-                currentBoard.getPieces(true).forEach(piece ->
-                        points.put(new Point(piece.getX(), piece.getY()), piece.getIco() + "")
-                );
-
-                currentBoard.getPieces(false).forEach(piece ->
-                        points.put(new Point(piece.getX(), piece.getY()), piece.getIco() + "")
-                );
-
-                String text = points.get(new Point(col, row));
-                if (text != null) {
-                    JLabel label = new JLabel(text, SwingConstants.CENTER);
-                    ChessPiece piece = currentBoard.getPiece(col, row);
-                    label.setForeground(piece != null && piece.isWhite() ? Color.WHITE : Color.BLACK);
+                ChessPiece squarePiece = currentBoard.getPiece(col, row);
+                if (squarePiece != null) {
+                    JLabel label = new JLabel(squarePiece.getIco() + "", SwingConstants.CENTER);
+                    label.setForeground(squarePiece.isWhite() ? Color.WHITE : Color.BLACK);
                     int size = jFrame.getHeight() / 8;
                     label.setFont(label.getFont().deriveFont((float) size * 0.7f));
                     square.add(label, BorderLayout.CENTER);
@@ -260,7 +271,7 @@ public class ChessJFrameGame {
 
                 ChessPiece piece = currentBoard.getPiece(fromX, fromY);
                 if (piece != null) {
-                    for (int[] validField : piece.getValidFields()) {
+                    for (int[] validField : currentBoard.getValidFields(fromX, fromY)) {
                         if (validField[0] == col && validField[1] == row) {
                             square.setBackground(Color.lightGray);
                             if (currentBoard.getPiece(col, row) != null) {
@@ -276,10 +287,11 @@ public class ChessJFrameGame {
                         fromY = hovered.y;
                     }
                 } else if (rightMousePressed) {
-                    if (piece != null && fromX != -1 && piece.isValidMove(hovered.x, hovered.y)) {
+                    if (piece != null && fromX != -1 && currentBoard.isValidMove(fromX, fromY, hovered.x, hovered.y)) {
                         System.out.println("Moving " + piece.getName());
                         System.out.println("   [" + fromX + ", " + fromY + " --> " + hovered.x + ", " + hovered.y + "]");
-                        currentBoard.movePiece(fromX, fromY, hovered.x, hovered.y);
+                        int moveFromX = fromX, moveFromY = fromY, moveToX = hovered.x, moveToY = hovered.y;
+                        currentBoard.submit(board -> board.movePiece(moveFromX, moveFromY, moveToX, moveToY));
                     } else if (fromX != -1 && fromY != -1){
                         System.out.println("Can't go there");
                     }
@@ -308,6 +320,10 @@ public class ChessJFrameGame {
                 boardPanel.add(square);
             }
         }
+
+        lastHovered = hovered;
+        boardPanel.revalidate();
+        boardPanel.repaint();
     }
 
     public static void setupGlobalMouseTracker(Component c) {
@@ -320,6 +336,7 @@ public class ChessJFrameGame {
                 if (e.getButton() == java.awt.event.MouseEvent.BUTTON3) {
                     rightMousePressed = true;
                 }
+                if (boardPanel != null) loadVisualBoard();
             }
 
             @Override
@@ -330,10 +347,29 @@ public class ChessJFrameGame {
                 if (e.getButton() == java.awt.event.MouseEvent.BUTTON3) {
                     rightMousePressed = false;
                 }
+                if (boardPanel != null) loadVisualBoard();
+            }
+        });
+
+        c.addMouseMotionListener(new java.awt.event.MouseMotionAdapter() {
+            @Override
+            public void mouseMoved(java.awt.event.MouseEvent e) {
+                redrawIfHoverChanged();
+            }
+
+            @Override
+            public void mouseDragged(java.awt.event.MouseEvent e) {
+                redrawIfHoverChanged();
             }
         });
     }
 
+    private static void redrawIfHoverChanged() {
+        if (boardPanel != null && !Objects.equals(getHoveredSquareCoords(), lastHovered)) {
+            loadVisualBoard();
+        }
+    }
+
     private static int computeSquareSize(JPanel panel) {
         int width = panel.getParent() != null ? panel.getParent().getWidth() : panel.getWidth();
         int height = panel.getParent() != null ? panel.getParent().getHeight() : panel.getHeight();
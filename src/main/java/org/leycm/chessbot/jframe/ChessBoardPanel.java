@@ -3,9 +3,11 @@ package org.leycm.chessbot.jframe;
 import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
 import org.leycm.chessbot.chess.ChessBoard;
+import org.leycm.chessbot.chess.ChessController;
 import org.leycm.chessbot.chess.ChessMove;
 import org.leycm.chessbot.chess.ChessPiece;
-import org.leycm.chessbot.chess.pieces.KingChessPiece;
+import org.leycm.chessbot.chess.GameSnapshot;
+import org.leycm.chessbot.chess.bitboard.Bitboards;
 
 import javax.swing.*;
 import java.awt.*;
@@ -184,31 +186,25 @@ public class ChessBoardPanel extends JPanel {
         if (displayBoard != null) {
             boolean currentTurn = displayBoard.isWhiteTurn();
             if (displayBoard.isKingInCheck(currentTurn)) {
-                for (int y = 0; y < 8; y++) {
-                    for (int x = 0; x < 8; x++) {
-                        ChessPiece piece = displayBoard.getPiece(x, y);
-                        if (piece instanceof KingChessPiece && piece.isWhite() == currentTurn) {
-                            kingInCheck = new Point(x, y);
-                            return;
-                        }
-                    }
-                }
+                int kingSquare = displayBoard.getPosition().kingSquare(currentTurn);
+                kingInCheck = new Point(Bitboards.x(kingSquare), Bitboards.y(kingSquare));
             }
         }
     }
 
     public void handlePieceSelection(int col, int row) {
-        ChessPiece piece = navigationController.getDisplayBoard().getPiece(col, row);
-        if (piece != null && piece.isWhite() == chessBoard.isWhiteTurn()) {
+        ChessBoard displayBoard = navigationController.getDisplayBoard();
+        ChessPiece piece = displayBoard.getPiece(col, row);
+        if (piece != null && piece.isWhite() == navigationController.getGameSnapshot().isWhiteTurn()) {
             draggedPiece = piece;
             draggedFromX = col;
             draggedFromY = row;
 
-            thisMove = new ChessMove(piece.getX(), piece.getY(), -1, -1, chessBoard);
+            thisMove = new ChessMove(col, row, -1, -1, chessBoard);
 
             validMoves.clear();
             validHitMoves.clear();
-            ChessMove[] validFields = piece.getValidMoves();
+            ChessMove[] validFields = displayBoard.getValidMoves(col, row);
             for (ChessMove move : validFields) {
                 if (move.getCapturedPiece() != null) {
                     validHitMoves.add(new Point(move.getToX(), move.getToY()));
@@ -225,15 +221,21 @@ public class ChessBoardPanel extends JPanel {
 
 
         if (toCol != draggedFromX || toRow != draggedFromY) {
+            int fromX = draggedFromX, fromY = draggedFromY;
+
             if (!navigationController.isAtLatestPosition()) {
 
-                ChessBoard forkBoard = navigationController.getDisplayBoard();
-                ChessBoardUi.streamBoard(navigationController.getId() + "/alt-" +
+                ChessBoard forkBoard = navigationController.detachDisplayBoard();
+                ChessBoardUi.streamOwnedBoard(navigationController.getId() + "/alt-" +
                         navigationController.getCurrentMoveIndex(), forkBoard);
 
-                forkBoard.movePiece(draggedFromX, draggedFromY, toCol, toRow);
-                forkBoard.setWhiteController(chessBoard.getWhiteController().clone());
-                forkBoard.setBlackController(chessBoard.getBlackController().clone());
+                ChessController whiteController = chessBoard.getWhiteController().clone();
+                ChessController blackController = chessBoard.getBlackController().clone();
+                forkBoard.submit(board -> {
+                    board.movePiece(fromX, fromY, toCol, toRow);
+                    board.setWhiteController(whiteController);
+                    board.setBlackController(blackController);
+                });
 
                 //noinspection deprecation
                 forkBoard.autoTick();
@@ -241,7 +243,7 @@ public class ChessBoardPanel extends JPanel {
                 navigationController.navigateToFirst();
                 navigationController.navigateToLast();
             }
-            chessBoard.movePiece(draggedFromX, draggedFromY, toCol, toRow);
+            chessBoard.submit(board -> board.movePiece(fromX, fromY, toCol, toRow));
         }
 
         clearDragState();
@@ -259,9 +261,11 @@ public class ChessBoardPanel extends JPanel {
     }
 
     public boolean canInteract() {
-        return chessBoard != null &&
-                chessBoard.getState() == ChessBoard.State.PLAYING && // try 0 navigationController.isAtLatestPosition() &&
-                !chessBoard.isAiTurn();
+        if (chessBoard == null) return false;
+
+        GameSnapshot snapshot = chessBoard.getGameSnapshot();
+        return snapshot.state() == ChessBoard.State.PLAYING && // try 0 navigationController.isAtLatestPosition() &&
+                !chessBoard.isAiTurn(snapshot);
     }
 
     public boolean isDragging() {
@@ -2,6 +2,7 @@ package org.leycm.chessbot.jframe;
 
 import org.jetbrains.annotations.NotNull;
 import org.leycm.chessbot.chess.*;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
 import org.leycm.chessbot.chess.controller.VirtualAiController;
 import org.leycm.chessbot.chess.pieces.*;
 
@@ -9,6 +10,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 
@@ -25,28 +28,45 @@ public class ChessBoardUi extends JFrame {
     private MoveHistoryPanel moveHistoryPanel;
     private NavigationController navigationController;
     private GameStateDisplay gameStateDisplay;
+    private final ChessBoardListener boardListener = this::onBoardEvent;
+    private final List<ChessBoard> ownedBoards = new ArrayList<>();
 
     private ChessBoardUi(String id, ChessBoard board) {
         this.boardId = id;
         this.chessBoard = board;
         this.navigationController = new NavigationController(id, board);
+        this.navigationController.setNavigationListener(this::updateBoard);
         initializeUI();
         updateBoard();
-        startUpdateTimer();
+        board.addListener(boardListener);
     }
 
     /**
      * Static method to create or update a chess board UI.
      */
     public static void streamBoard(String id, ChessBoard board) {
+        streamBoard(id, board, false);
+    }
+
+    /**
+     * Like {@link #streamBoard(String, ChessBoard)}, but the window takes the board over (e.g. a game forked
+     * from the history) and disposes it when the window is closed.
+     */
+    public static void streamOwnedBoard(String id, ChessBoard board) {
+        streamBoard(id, board, true);
+    }
+
+    private static void streamBoard(String id, ChessBoard board, boolean owned) {
         SwingUtilities.invokeLater(() -> {
             ChessBoardUi existingUI = activeBoards.get(id);
             if (existingUI != null) {
+                if (owned) existingUI.ownedBoards.add(board);
                 existingUI.updateChessBoard(board);
                 existingUI.toFront();
                 existingUI.requestFocus();
             } else {
                 ChessBoardUi newUI = new ChessBoardUi(id, board);
+                if (owned) newUI.ownedBoards.add(board);
                 activeBoards.put(id, newUI);
                 newUI.setVisible(true);
             }
@@ -54,10 +74,13 @@ public class ChessBoardUi extends JFrame {
     }
 
     private void updateChessBoard(ChessBoard board) {
+        this.chessBoard.removeListener(boardListener);
+        board.addListener(boardListener);
+
         this.chessBoard = board;
         this.navigationController.setChessBoard(board);
         if (navigationController.isAtLatestPosition()) {
-            navigationController.setDisplayBoard(board);
+            navigationController.navigateToLast();
         }
         updateBoard();
     }
@@ -83,6 +106,9 @@ public class ChessBoardUi extends JFrame {
             @Override
             public void windowClosing(WindowEvent e) {
                 activeBoards.remove(boardId);
+                chessBoard.removeListener(boardListener);
+                navigationController.dispose();
+                ownedBoards.forEach(ChessBoard::dispose);
             }
         });
     }
@@ -99,14 +125,29 @@ public class ChessBoardUi extends JFrame {
         return sidePanel;
     }
 
-    private void startUpdateTimer() {
-        new Timer(100, e -> {
-            if (chessBoard != null) {
-                updateBoard();
+    /**
+     * Brings the window up to date with a change of the board. Runs on the board's writer thread,
+     * so the actual work is handed to the EDT; a move only adds its entry to the history.
+     */
+    private void onBoardEvent(@NotNull ChessBoardEvent event) {
+        SwingUtilities.invokeLater(() -> {
+            if (navigationController.isAtLatestPosition()) {
+                navigationController.navigateToLast();
+            }
+
+            gameStateDisplay.updateDisplay(chessBoard, navigationController);
+            switch (event) {
+                case ChessBoardEvent.MoveApplied applied -> moveHistoryPanel.appendMove(applied.snapshot().moves());
+                case ChessBoardEvent.Restarted _ -> moveHistoryPanel.updateMoveHistory(chessBoard);
+                case ChessBoardEvent.StateChanged _ -> {}
             }
-        }).start();
+            boardPanel.updateBoard();
+        });
     }
 
+    /**
+     * Redraws the whole window, e.g. after navigating through the history.
+     */
     public void updateBoard() {
         if (chessBoard == null) return;
 
@@ -140,28 +181,30 @@ public class ChessBoardUi extends JFrame {
     private static void setupStandardChessBoard(ChessBoard board) {
         // Pawns
         for (int x = 0; x < 8; x++) {
-            board.placePiece(new PawnChessPiece(false, board), x, 1);
-            board.placePiece(new PawnChessPiece(true, board), x, 6);
+            board.placePiece(PawnChessPiece.of(false), x, 1);
+            board.placePiece(PawnChessPiece.of(true), x, 6);
         }
 
         // Black pieces (top row)
-        board.placePiece(new RookChessPiece(false, board), 0, 0);
-        board.placePiece(new KnightChessPiece(false, board), 1, 0);
-        board.placePiece(new BishopChessPiece(false, board), 2, 0);
-        board.placePiece(new KingChessPiece(false, board), 3, 0);
-        board.placePiece(new QueenChessPiece(false, board), 4, 0);
-        board.placePiece(new BishopChessPiece(false, board), 5, 0);
-        board.placePiece(new KnightChessPiece(false, board), 6, 0);
-        board.placePiece(new RookChessPiece(false, board), 7, 0);
+        board.placePiece(RookChessPiece.of(false), 0, 0);
+        board.placePiece(KnightChessPiece.of(false), 1, 0);
+        board.placePiece(BishopChessPiece.of(false), 2, 0);
+        board.placePiece(QueenChessPiece.of(false), 3, 0);
+        board.placePiece(KingChessPiece.of(false), 4, 0);
+        board.placePiece(BishopChessPiece.of(false), 5, 0);
+        board.placePiece(KnightChessPiece.of(false), 6, 0);
+        board.placePiece(RookChessPiece.of(false), 7, 0);
 
         // White pieces (bottom row)
-        board.placePiece(new RookChessPiece(true, board), 0, 7);
-        board.placePiece(new KnightChessPiece(true, board), 1, 7);
-        board.placePiece(new BishopChessPiece(true, board), 2, 7);
-        board.placePiece(new KingChessPiece(true, board), 3, 7);
-        board.placePiece(new QueenChessPiece(true, board), 4, 7);
-        board.placePiece(new BishopChessPiece(true, board), 5, 7);
-        board.placePiece(new KnightChessPiece(true, board), 6, 7);
-        board.placePiece(new RookChessPiece(true, board), 7, 7);
+        board.placePiece(RookChessPiece.of(true), 0, 7);
+        board.placePiece(KnightChessPiece.of(true), 1, 7);
+        board.placePiece(BishopChessPiece.of(true), 2, 7);
+        board.placePiece(QueenChessPiece.of(true), 3, 7);
+        board.placePiece(KingChessPiece.of(true), 4, 7);
+        board.placePiece(BishopChessPiece.of(true), 5, 7);
+        board.placePiece(KnightChessPiece.of(true), 6, 7);
+        board.placePiece(RookChessPiece.of(true), 7, 7);
+
+        board.getPosition().setCastlingRights(BitboardPosition.ALL_CASTLING);
     }
 }
\ No newline at end of file
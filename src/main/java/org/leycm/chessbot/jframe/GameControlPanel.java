@@ -62,14 +62,14 @@ public class GameControlPanel extends JPanel {
 
         startButton.addActionListener(e -> {
             if (chessBoard != null) {
-                chessBoard.start();
+                chessBoard.submit(ChessBoard::start);
                 navigationController.navigateToLast(); // Go to latest position
             }
         });
 
         resetButton.addActionListener(e -> {
             if (chessBoard != null) {
-                chessBoard.restart();
+                chessBoard.submit(ChessBoard::restart);
                 navigationController.reset();
             }
         });
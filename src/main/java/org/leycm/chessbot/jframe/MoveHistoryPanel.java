@@ -45,28 +45,52 @@ public class MoveHistoryPanel extends JPanel {
     }
 
     public void updateMoveHistory(ChessBoard chessBoard) {
-        SwingUtilities.invokeLater(() -> {
-            moveListPanel.removeAll();
+        SwingUtilities.invokeLater(() -> updateMoveHistory(chessBoard.getGameSnapshot().moves()));
+    }
 
-            List<ChessMove> history = chessBoard.getMoveHistory();
+    private void updateMoveHistory(List<ChessMove> history) {
+        moveListPanel.removeAll();
 
-            for (int i = 0; i < history.size(); i += 2) {
-                JPanel rowPanel = createMoveRowPanel(history, i);
-                moveListPanel.add(rowPanel);
-            }
+        for (int i = 0; i < history.size(); i += 2) {
+            JPanel rowPanel = createMoveRowPanel(history, i);
+            moveListPanel.add(rowPanel);
+        }
 
-            moveListPanel.revalidate();
-            moveListPanel.repaint();
+        moveListPanel.revalidate();
+        moveListPanel.repaint();
+        scrollToBottom();
+    }
 
-            // Auto-scroll to bottom
-            SwingUtilities.invokeLater(() -> {
-                JScrollPane scrollPane = (JScrollPane) moveListPanel.getParent().getParent();
-                JScrollBar verticalScrollBar = scrollPane.getVerticalScrollBar();
-                verticalScrollBar.setValue(verticalScrollBar.getMaximum());
-            });
+    private void scrollToBottom() {
+        SwingUtilities.invokeLater(() -> {
+            JScrollPane scrollPane = (JScrollPane) moveListPanel.getParent().getParent();
+            JScrollBar verticalScrollBar = scrollPane.getVerticalScrollBar();
+            verticalScrollBar.setValue(verticalScrollBar.getMaximum());
         });
     }
 
+    /**
+     * Adds the last move of {@code history} without rebuilding the list: a white move opens a new row,
+     * a black move replaces the last row, which gets its second button.
+     */
+    public void appendMove(List<ChessMove> history) {
+        int index = history.size() - 1;
+        if (index < 0) return;
+
+        int rows = moveListPanel.getComponentCount();
+        if (index / 2 != (index % 2 == 0 ? rows : rows - 1)) { // out of sync, e.g. events of a replaced board
+            updateMoveHistory(history);
+            return;
+        }
+
+        if (index % 2 == 1) moveListPanel.remove(rows - 1);
+        moveListPanel.add(createMoveRowPanel(history, index - index % 2));
+
+        moveListPanel.revalidate();
+        moveListPanel.repaint();
+        scrollToBottom();
+    }
+
     private JPanel createMoveRowPanel(List<ChessMove> history, int startIndex) {
         JPanel rowPanel = new JPanel(new BorderLayout());
         rowPanel.setBackground(ChessConstants.HISTORY_BACKGROUND);
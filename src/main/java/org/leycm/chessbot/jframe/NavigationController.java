@@ -1,15 +1,21 @@
 package org.leycm.chessbot.jframe;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
 import org.leycm.chessbot.chess.ChessBoard;
 import org.leycm.chessbot.chess.ChessMove;
+import org.leycm.chessbot.chess.GameSnapshot;
+import org.leycm.chessbot.chess.bitboard.PositionSnapshot;
 
 import java.util.List;
 
 /**
  * Handles navigation through the chess game history and manages the display state.
+ * <p>
+ * Everything shown is read from the game's latest {@link GameSnapshot}, never from the live board,
+ * which belongs to its {@link org.leycm.chessbot.chess.GameActor GameActor} thread.
  */
 @Setter
 @Getter
@@ -19,10 +25,28 @@ public class NavigationController {
     private int currentMoveIndex = -1; // -1 means at the latest position
     private final String id;
 
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private ChessBoard historyBoard;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private PositionSnapshot historySnapshot;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private ChessBoard latestBoard;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private GameSnapshot latestSnapshot;
+    @Getter(AccessLevel.NONE)
+    private Runnable navigationListener; // called when the shown move changes
+
     public NavigationController(String id, ChessBoard chessBoard) {
         this.chessBoard = chessBoard;
-        this.displayBoard = chessBoard;
         this.id = id;
+        this.displayBoard = createLatestBoard();
+    }
+
+    /**
+     * The latest published state of the game.
+     */
+    public @NotNull GameSnapshot getGameSnapshot() {
+        return chessBoard.getGameSnapshot();
     }
 
     public boolean isAtLatestPosition() {
@@ -38,11 +62,12 @@ public class NavigationController {
      * @param moveIndex The move index to navigate to (-1 = latest, -2 = start, >= 0 = specific move)
      */
     public void navigateToMove(int moveIndex) {
-        List<ChessMove> history = chessBoard.getMoveHistory();
+        List<ChessMove> history = getGameSnapshot().moves();
+        int previousIndex = currentMoveIndex;
 
         if (moveIndex == -1 || moveIndex == history.size() - 1) {
             currentMoveIndex = -1;
-            displayBoard = chessBoard;
+            displayBoard = createLatestBoard();
         } else if (moveIndex == -2) {
             currentMoveIndex = -2;
             displayBoard = createBoardAtMove(-2);
@@ -50,6 +75,8 @@ public class NavigationController {
             currentMoveIndex = moveIndex;
             displayBoard = createBoardAtMove(moveIndex);
         }
+
+        if (currentMoveIndex != previousIndex) navigated();
     }
 
     /**
@@ -63,7 +90,7 @@ public class NavigationController {
      * Navigate to the previous move.
      */
     public void navigateToPrevious() {
-        List<ChessMove> history = chessBoard.getMoveHistory();
+        List<ChessMove> history = getGameSnapshot().moves();
         if (currentMoveIndex == -1) navigateToMove(history.size() -1);
         navigateToMove(Math.max(-2, currentMoveIndex - 1));
     }
@@ -72,7 +99,7 @@ public class NavigationController {
      * Navigate to the next move.
      */
     public void navigateToNext() {
-        List<ChessMove> history = chessBoard.getMoveHistory();
+        List<ChessMove> history = getGameSnapshot().moves();
         navigateToMove(history.size() > currentMoveIndex + 1 ? currentMoveIndex + 1 : -1 );
     }
 
@@ -87,7 +114,7 @@ public class NavigationController {
      * Get the last move that was played.
      */
     public ChessMove getLastMove() {
-        List<ChessMove> history = chessBoard.getMoveHistory();
+        List<ChessMove> history = getGameSnapshot().moves();
 
         if (!history.isEmpty() && currentMoveIndex >= 0) {
             return history.get(currentMoveIndex);
@@ -102,10 +129,10 @@ public class NavigationController {
      * Get the current turn status for display purposes.
      */
     public String getTurnStatus() {
-        List<ChessMove> history = chessBoard.getMoveHistory();
+        List<ChessMove> history = getGameSnapshot().moves();
 
         if (currentMoveIndex == -1) {
-            return "Turn: " + (chessBoard.isWhiteTurn() ? "White" : "Black");
+            return "Turn: " + (getGameSnapshot().isWhiteTurn() ? "White" : "Black");
         } else if (currentMoveIndex == -2) {
             return "Turn: White (Start Position)";
         } else if (currentMoveIndex >= 0 && currentMoveIndex < history.size()) {
@@ -126,7 +153,7 @@ public class NavigationController {
             return "Status: Viewing History";
         }
 
-        return switch (chessBoard.getState()) {
+        return switch (getGameSnapshot().state()) {
             case START -> "Game Ready to Start";
             case PLAYING -> "Game in Progress";
             case CHECKMATE_WHITE_WINS -> "Checkmate! White Wins";
@@ -140,29 +167,87 @@ public class NavigationController {
      * Reset the navigation to the latest position and clear the board state.
      */
     public void reset() {
+        int previousIndex = currentMoveIndex;
         currentMoveIndex = -1;
-        displayBoard = chessBoard;
+        displayBoard = createLatestBoard();
+
+        if (previousIndex != -1) navigated();
     }
 
-    private @NotNull ChessBoard createBoardAtMove(int moveIndex) {
-        ChessBoard tempBoard = new ChessBoard(chessBoard.getStartingOder(),
-                chessBoard.getWhiteController(),
-                chessBoard.getBlackController());
-        tempBoard.start();
+    private void navigated() {
+        if (navigationListener != null) navigationListener.run();
+    }
+
+    /**
+     * Hands the board showing a past position over to the caller (e.g. to continue a game from it).
+     * Later navigation builds a new history board instead of overwriting this one.
+     */
+    public ChessBoard detachDisplayBoard() {
+        ChessBoard board = displayBoard;
+        if (board == historyBoard) {
+            historyBoard = null;
+            historySnapshot = null;
+        } else if (board == latestBoard) {
+            latestBoard = null;
+            latestSnapshot = null;
+        }
+        return board;
+    }
 
-        if (moveIndex == -2) {
-            return tempBoard;
+    /**
+     * Disposes the boards this controller created for display. Detached boards belong to whoever took them.
+     */
+    public void dispose() {
+        if (latestBoard != null) latestBoard.dispose();
+        if (historyBoard != null) historyBoard.dispose();
+        latestBoard = null;
+        latestSnapshot = null;
+        historyBoard = null;
+        historySnapshot = null;
+    }
+
+    /**
+     * Shows the latest published position on a board owned by the UI, restored only when a new snapshot was published.
+     */
+    private @NotNull ChessBoard createLatestBoard() {
+        if (latestBoard == null) {
+            latestBoard = new ChessBoard(chessBoard.getStartingOder(),
+                    chessBoard.getWhiteController(),
+                    chessBoard.getBlackController());
+        }
+
+        GameSnapshot snapshot = getGameSnapshot();
+        if (snapshot != latestSnapshot) {
+            latestBoard.restore(snapshot.position());
+            latestSnapshot = snapshot;
         }
 
-        List<ChessMove> history = chessBoard.getMoveHistory();
+        return latestBoard;
+    }
+
+    /**
+     * Shows the position after {@code moveIndex} on a board reserved for history viewing.
+     * The game board keeps a snapshot of every ply, so this restores one snapshot instead of
+     * replaying the game, and does nothing if that snapshot is already shown.
+     */
+    private @NotNull ChessBoard createBoardAtMove(int moveIndex) {
+        if (historyBoard == null) {
+            historyBoard = new ChessBoard(chessBoard.getStartingOder(),
+                    chessBoard.getWhiteController(),
+                    chessBoard.getBlackController());
+        }
 
-        int maxMoves = (moveIndex == -1) ? history.size() - 1 : moveIndex;
+        int ply = moveIndex == -2 ? 0 : moveIndex + 1;
+        PositionSnapshot snapshot = getGameSnapshot().positionAt(ply);
 
-        for (int i = 0; i <= maxMoves && i < history.size(); i++) {
-            ChessMove move = history.get(i);
-            tempBoard.movePiece(move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
+        if (snapshot == null) {
+            historyBoard.restart();
+            historySnapshot = null;
+        } else if (snapshot != historySnapshot) {
+            historyBoard.restore(snapshot);
+            historySnapshot = snapshot;
         }
 
-        return tempBoard;
+        return historyBoard;
     }
 }
\ No newline at end of file
@@ -38,6 +38,19 @@ public class ChessModel {
         return current;
     }
 
+    /**
+     * Like {@link #predict(int[])}, but takes the first layer from an accumulator that follows the
+     * position incrementally, so only the layers behind it are computed.
+     */
+    public double[] predict(@NotNull FirstLayerAccumulator accumulator) {
+        double[] current = accumulator.activate();
+        for (int i = 1; i < layers.length; i++) {
+            current = layers[i].forward(current);
+        }
+
+        return current;
+    }
+
     public void train(int @NotNull [] boardState, ChessMove move, double reward) {
         double[] input = new double[inputSize];
         for (int i = 0; i < boardState.length; i++) {
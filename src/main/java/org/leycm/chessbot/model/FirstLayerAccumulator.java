@@ -0,0 +1,164 @@
+package org.leycm.chessbot.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Bitboards;
+import org.leycm.chessbot.chess.bitboard.Piece;
+
+import java.util.Arrays;
+
+/**
+ * The pre-activations of the first {@link DenseLayer} of a {@link ChessModel}, kept up to date while
+ * moves are made and taken back instead of recomputed for every position.
+ * <p>
+ * The model's input is one value per square (the signed level of the piece on it) plus the side to
+ * move, all divided by 10. Each (piece, square) pair therefore adds the weight column of its square,
+ * scaled by the piece's level, to the first layer's sums: a sparse piece-square encoding. Placing a
+ * piece adds its column and removing it subtracts it again, so a move touches two to five columns
+ * (the side to move included) instead of all 65.
+ * <p>
+ * The accumulators of earlier plies stay on a stack, so taking a move back restores the previous sums
+ * without any arithmetic. Adding and subtracting columns rounds differently than summing them from
+ * scratch, so after many moves the sums may differ from {@link #refresh} in the last bits. The weights are
+ * copied, transposed, when the accumulator is created; create a new one after training the model.
+ */
+public final class FirstLayerAccumulator {
+
+    private static final int SIDE_TO_MOVE_INPUT = 64;
+    /**
+     * The input value of white to move; black to move is 0. Like the squares, it is divided by 10.
+     */
+    private static final double WHITE_TO_MOVE = 0.1;
+
+    /**
+     * {@code columns[input][neuron]}, the first layer's weights with inputs and neurons swapped, so a
+     * column is one contiguous array.
+     */
+    private final double[][] columns;
+    private final double[] biases;
+    private double[][] stack;
+    private final long[] before = new long[Piece.CODE_COUNT];
+    private int ply;
+
+    public FirstLayerAccumulator(@NotNull ChessModel model) {
+        DenseLayer layer = model.getLayers()[0];
+        double[][] weights = layer.getWeights();
+
+        int neurons = weights.length;
+        int inputs = weights[0].length;
+        columns = new double[inputs][neurons];
+        for (int neuron = 0; neuron < neurons; neuron++) {
+            for (int input = 0; input < inputs; input++) {
+                columns[input][neuron] = weights[neuron][input];
+            }
+        }
+
+        biases = layer.getBiases().clone();
+        stack = new double[256][neurons];
+    }
+
+    /**
+     * Computes the sums of {@code position} from scratch and empties the stack. Call it once before
+     * walking through moves with {@link #makeMove} and {@link #unmakeMove}.
+     */
+    public void refresh(@NotNull BitboardPosition position) {
+        ply = 0;
+        double[] values = stack[0];
+        System.arraycopy(biases, 0, values, 0, values.length);
+
+        for (long bits = position.occupied(); bits != 0; bits = Bitboards.withoutFirst(bits)) {
+            int square = Bitboards.first(bits);
+            add(values, square, input(position.pieceAt(square)));
+        }
+        if (position.isWhiteToMove()) add(values, SIDE_TO_MOVE_INPUT, WHITE_TO_MOVE);
+    }
+
+    /**
+     * Plays {@code move} on {@code position} and updates the sums by the pieces that appeared and disappeared.
+     */
+    public void makeMove(@NotNull BitboardPosition position, int move) {
+        for (int piece = 0; piece < Piece.CODE_COUNT; piece++) {
+            before[piece] = position.pieces(piece);
+        }
+        position.makeMove(move);
+
+        double[] values = push();
+        for (int piece = 0; piece < Piece.CODE_COUNT; piece++) {
+            long after = position.pieces(piece);
+            long changed = before[piece] ^ after;
+            if (changed == 0) continue;
+
+            double input = input(piece);
+            for (long bits = changed & after; bits != 0; bits = Bitboards.withoutFirst(bits)) {
+                add(values, Bitboards.first(bits), input);
+            }
+            for (long bits = changed & before[piece]; bits != 0; bits = Bitboards.withoutFirst(bits)) {
+                add(values, Bitboards.first(bits), -input);
+            }
+        }
+        add(values, SIDE_TO_MOVE_INPUT, position.isWhiteToMove() ? WHITE_TO_MOVE : -WHITE_TO_MOVE);
+    }
+
+    /**
+     * Takes back the last {@link #makeMove} on {@code position} and restores the sums before it.
+     */
+    public void unmakeMove(@NotNull BitboardPosition position) {
+        position.unmakeMove();
+        ply--;
+    }
+
+    public void makeNullMove(@NotNull BitboardPosition position) {
+        position.makeNullMove();
+        add(push(), SIDE_TO_MOVE_INPUT, position.isWhiteToMove() ? WHITE_TO_MOVE : -WHITE_TO_MOVE);
+    }
+
+    public void unmakeNullMove(@NotNull BitboardPosition position) {
+        position.unmakeNullMove();
+        ply--;
+    }
+
+    /**
+     * The current pre-activations, before the ReLU; the array is reused and must not be modified.
+     */
+    public double @NotNull [] values() {
+        return stack[ply];
+    }
+
+    /**
+     * @return a new array with the first layer's output, i.e. the ReLU of the current sums
+     */
+    public double @NotNull [] activate() {
+        double[] values = stack[ply];
+        double[] output = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            output[i] = Math.max(0, values[i]);
+        }
+        return output;
+    }
+
+    private double @NotNull [] push() {
+        if (ply + 1 == stack.length) {
+            int size = stack.length;
+            stack = Arrays.copyOf(stack, size * 2);
+            for (int i = size; i < stack.length; i++) stack[i] = new double[biases.length];
+        }
+        double[] values = stack[ply + 1];
+        System.arraycopy(stack[ply], 0, values, 0, values.length);
+        ply++;
+        return values;
+    }
+
+    private void add(double @NotNull [] values, int input, double scale) {
+        double[] column = columns[input];
+        for (int i = 0; i < values.length; i++) {
+            values[i] += scale * column[i];
+        }
+    }
+
+    /**
+     * The input value a piece gives its square, matching {@link ChessModel#predict(int[])}.
+     */
+    private static double input(int piece) {
+        return Piece.signedLevel(piece) / 10.0;
+    }
+}
@@ -1,7 +1,16 @@
 package org.leycm.chessbot.model;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import lombok.Getter;
+import lombok.Setter;
 import org.leycm.chessbot.chess.ChessBoard;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Fen;
+import org.leycm.chessbot.chess.bitboard.Move;
+import org.leycm.chessbot.engine.Engine;
+import org.leycm.chessbot.engine.SearchResult;
+import org.leycm.chessbot.engine.TranspositionTable;
 
 import java.io.*;
 import java.nio.file.Files;
@@ -9,14 +18,90 @@ import java.nio.file.Path;
 
 public class ModelLoader {
 
+    /**
+     * Where AI moves come from.
+     */
+    public enum Backend {
+        /** The trained model binary, driven as a UCI process. */
+        UCI_MODEL,
+        /** The built-in {@link Engine}, which needs no external binary. */
+        ENGINE
+    }
+
+    @Getter @Setter
+    private static volatile Backend backend = ReadOnlyChessModel.isAvailable() ? Backend.UCI_MODEL : Backend.ENGINE;
+
+    /**
+     * Threads the engine searches with; changing it takes effect with the next search.
+     */
+    @Getter
+    private static volatile int engineThreads = Engine.DEFAULT_THREADS;
+
     private static ReadOnlyChessModel model;
+    private static Engine engine;
 
     public static void makeBestMove(ChessBoard board) {
+        if (backend == Backend.ENGINE) {
+            playMove(board, findBestMove(board.getPosition()));
+        } else {
+            model().makeBestMove(board);
+        }
+    }
+
+    /**
+     * Asks the current backend for the best move without touching a board, e.g. while the board keeps running on its own thread.
+     * The engine searches the position directly; the model process gets it as FEN.
+     * @return the move in UCI notation, or null if none was found
+     */
+    public static @Nullable String findBestMove(@NotNull BitboardPosition position) {
+        if (backend == Backend.ENGINE) {
+            Engine engine = engine();
+            SearchResult result = engine.search(position, ReadOnlyChessModel.MOVE_TIME_MILLIS);
+            TranspositionTable table = engine.getTranspositionTable();
+            System.out.printf("[Engine] %s, tt hit rate %.1f%%, hashfull %d permille of %d MB%n",
+                    result, table.getHitRate() * 100, table.getHashFull(), table.getSizeMb());
+            return result.bestMove() == Move.NONE ? null : Move.toUci(result.bestMove());
+        }
+
+        StringBuilder fen = new StringBuilder(90);
+        try {
+            Fen.write(position, fen);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder does not throw
+        }
+        return model().findBestMove(fen.toString());
+    }
+
+    public static void playMove(@NotNull ChessBoard board, @Nullable String bestMove) {
+        if (backend == Backend.ENGINE) {
+            if (bestMove == null) {
+                System.out.println("Kein Zug gefunden!");
+                return;
+            }
+            ReadOnlyChessModel.playUciMove(board, bestMove);
+        } else {
+            model().playMove(board, bestMove);
+        }
+    }
+
+    public static synchronized void setEngineThreads(int threads) {
+        engineThreads = Math.max(1, threads);
+        if (engine != null && engine.getThreads() != engineThreads) {
+            engine.close();
+            engine = null;
+        }
+    }
+
+    private static synchronized @NotNull Engine engine() {
+        if (engine == null) engine = new Engine(TranspositionTable.DEFAULT_SIZE_MB, engineThreads);
+        return engine;
+    }
+
+    private static synchronized @NotNull ReadOnlyChessModel model() {
         if (model == null || model.isClosed()) {
             model = ReadOnlyChessModel.loadNewest();
         }
-
-        model.makeBestMove(board);
+        return model;
     }
 
     public static void saveModel(@NotNull ChessModel model, String filename) throws IOException {
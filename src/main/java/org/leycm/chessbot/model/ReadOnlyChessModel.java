@@ -3,20 +3,31 @@ package org.leycm.chessbot.model;
 import lombok.Getter;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.leycm.chessbot.chess.ChessBoard;
-import org.leycm.chessbot.chess.ChessPiece;
+import org.leycm.chessbot.chess.ChessMove;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class ReadOnlyChessModel {
 
     private static final String MODEL_PATH = "model/trained/chess_model-1.2.0-R0-FINAL.model";
+    static final int MOVE_TIME_MILLIS = 500; // 500ms pro Zug
 
     private Process engineProcess;
     private BufferedReader reader;
     private BufferedWriter writer;
     @Getter
-    private boolean closed = false;
+    private volatile boolean closed = false;
+
+    /**
+     * Whether the model binary exists and can be started on this host.
+     */
+    public static boolean isAvailable() {
+        return Files.isExecutable(Path.of(MODEL_PATH));
+    }
 
     @Contract(" -> new")
     public static @NotNull ReadOnlyChessModel loadNewest() {
@@ -55,8 +66,23 @@ public class ReadOnlyChessModel {
         }
     }
 
-    public String findBestMove(String fen, int timeMillis) throws IOException {
+    public synchronized String findBestMove(String fen, int timeMillis) throws IOException {
         sendCommand("position fen " + fen);
+        return go(timeMillis);
+    }
+
+    /**
+     * Like {@link #findBestMove(String, int)}, but writes the board's FEN straight into the engine pipe.
+     */
+    public synchronized String findBestMove(@NotNull ChessBoard board, int timeMillis) throws IOException {
+        writer.write("position fen ");
+        board.toFen(writer);
+        writer.write('\n');
+        writer.flush();
+        return go(timeMillis);
+    }
+
+    private String go(int timeMillis) throws IOException {
         sendCommand("go movetime " + timeMillis);
 
         String line;
@@ -81,24 +107,39 @@ public class ReadOnlyChessModel {
 
     public void makeBestMove(ChessBoard board) {
         try {
-            String fen = boardToFEN(board);
-            String bestMove = findBestMove(fen, 500); // 500ms pro Zug
+            playMove(board, findBestMove(board, MOVE_TIME_MILLIS));
+        } catch (IOException e) {
+            System.out.println("An IO error have fun to debug Model closed");
+            closed = true;
+        }
+    }
+
+    /**
+     * Searches a position given as FEN. The engine pipe is shared, so concurrent callers take turns.
+     * @return the move in UCI notation, or null if none was found or the engine failed
+     */
+    public @Nullable String findBestMove(@NotNull String fen) {
+        try {
+            return findBestMove(fen, MOVE_TIME_MILLIS);
+        } catch (IOException e) {
+            System.out.println("An IO error have fun to debug Model closed");
+            closed = true;
+            return null;
+        }
+    }
 
+    /**
+     * Plays a move in UCI notation (e.g. {@code e2e4}) on the board. Without a move the model is closed.
+     */
+    public void playMove(@NotNull ChessBoard board, @Nullable String bestMove) {
+        try {
             if (bestMove == null) {
                 System.out.println("Kein Zug gefunden!");
                 this.close();
                 return;
             }
 
-            int fromX = bestMove.charAt(0) - 'a';
-            int toX = bestMove.charAt(2) - 'a';
-            int fromRank = Character.getNumericValue(bestMove.charAt(1)) - 1;
-            int toRank = Character.getNumericValue(bestMove.charAt(3)) - 1;
-            int fromY = 7 - fromRank;
-            int toY = 7 - toRank;
-
-            System.out.printf("Bester Zug: %s -> von (%d,%d) nach (%d,%d)%n", bestMove, fromX, fromY, toX, toY);
-            board.movePiece(fromX, fromY, toX, toY);
+            playUciMove(board, bestMove);
 
         } catch (IOException e) {
             System.out.println("An IO error have fun to debug Model closed");
@@ -106,28 +147,22 @@ public class ReadOnlyChessModel {
         }
     }
 
-    private static @NotNull String boardToFEN(ChessBoard board) {
-        StringBuilder fen = new StringBuilder();
-        for (int y = 0; y < 8; y++) {
-            int emptyCount = 0;
-            for (int x = 0; x < 8; x++) {
-                ChessPiece piece = board.getPiece(x, y);
-                if (piece == null) {
-                    emptyCount++;
-                } else {
-                    if (emptyCount > 0) {
-                        fen.append(emptyCount);
-                        emptyCount = 0;
-                    }
-                    char c = piece.getChar();
-                    fen.append(piece.isWhite() ? Character.toUpperCase(c) : Character.toLowerCase(c));
-                }
-            }
-            if (emptyCount > 0) fen.append(emptyCount);
-            if (y < 7) fen.append("/");
+    /**
+     * Plays a move in UCI notation on the board, including the promotion piece of e.g. {@code e7e8n}.
+     */
+    public static void playUciMove(@NotNull ChessBoard board, @NotNull String bestMove) {
+        int fromX = bestMove.charAt(0) - 'a';
+        int toX = bestMove.charAt(2) - 'a';
+        int fromRank = Character.getNumericValue(bestMove.charAt(1)) - 1;
+        int toRank = Character.getNumericValue(bestMove.charAt(3)) - 1;
+        int fromY = 7 - fromRank;
+        int toY = 7 - toRank;
+
+        System.out.printf("Bester Zug: %s -> von (%d,%d) nach (%d,%d)%n", bestMove, fromX, fromY, toX, toY);
+        if (bestMove.length() > 4) {
+            board.movePiece(new ChessMove(fromX, fromY, toX, toY, board, true, Character.toUpperCase(bestMove.charAt(4)), false, false));
+        } else {
+            board.movePiece(fromX, fromY, toX, toY);
         }
-        fen.append(board.isWhiteTurn() ? " w " : " b ");
-        fen.append("- - 0 1");
-        return fen.toString();
     }
 }
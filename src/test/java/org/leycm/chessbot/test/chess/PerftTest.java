@@ -0,0 +1,57 @@
+package org.leycm.chessbot.test.chess;
+
+import org.leycm.chessbot.chess.ParallelPerft;
+import org.leycm.chessbot.chess.Perft;
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Fen;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class PerftTest {
+
+    public static void main(String[] args) {
+
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+
+        boolean allPassed = true;
+        for (Perft.Reference reference : Perft.REFERENCES) {
+            allPassed &= Perft.run(reference, maxDepth);
+            allPassed &= walkPlies(reference, maxDepth);
+            System.out.println("");
+        }
+
+        System.out.println(allPassed ? "Perft: all counts match" : "Perft: counts DIFFER from the reference");
+
+    }
+
+    /**
+     * Walks the move tree without deduplication; the positions visited at ply n must equal perft(n).
+     * Every visited position's incremental Zobrist and pawn keys must match the keys computed from scratch,
+     * which also catches a wrong unmake, since the next sibling is made from the restored position.
+     */
+    private static boolean walkPlies(Perft.Reference reference, int maxDepth) {
+        int depth = Math.min(maxDepth, reference.nodes().length);
+        BitboardPosition root = new BitboardPosition();
+        Fen.load(root, reference.fen());
+
+        AtomicLongArray plies = new AtomicLongArray(depth + 1);
+        AtomicLong keyMismatches = new AtomicLong();
+        ParallelPerft.walk(root, depth, ForkJoinPool.commonPool(), 0, (position, ply) -> {
+            plies.incrementAndGet(ply);
+            if (position.getHashKey() != position.computeHashKey() || position.getPawnKey() != position.computePawnKey()) {
+                keyMismatches.incrementAndGet();
+            }
+        });
+
+        boolean passed = plies.get(0) == 1 && keyMismatches.get() == 0;
+        for (int ply = 1; ply <= depth; ply++) {
+            passed &= plies.get(ply) == reference.nodes()[ply - 1];
+        }
+
+        System.out.printf("%-10s walk per ply: %s, %d key mismatches %s%n", reference.name(), plies, keyMismatches.get(), passed ? "OK" : "DIFFERS");
+        return passed;
+    }
+
+}
@@ -10,12 +10,12 @@ public class PieceMoveTest {
 
         ChessBoard chessBoard = new ChessBoard();
 
-        testChessPiece(chessBoard, new PawnChessPiece(true, chessBoard), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
-        testChessPiece(chessBoard, new KnightChessPiece(true, chessBoard), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
-        testChessPiece(chessBoard, new BishopChessPiece(true, chessBoard), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
-        testChessPiece(chessBoard, new RookChessPiece(true, chessBoard), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
-        testChessPiece(chessBoard, new QueenChessPiece(true, chessBoard), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
-        testChessPiece(chessBoard, new KingChessPiece(true, chessBoard), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
+        testChessPiece(chessBoard, PawnChessPiece.of(true), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
+        testChessPiece(chessBoard, KnightChessPiece.of(true), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
+        testChessPiece(chessBoard, BishopChessPiece.of(true), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
+        testChessPiece(chessBoard, RookChessPiece.of(true), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
+        testChessPiece(chessBoard, QueenChessPiece.of(true), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
+        testChessPiece(chessBoard, KingChessPiece.of(true), 3, 3, new int[][]{{1, 1}, {0, 3}, {6, 6}, {0, 5}, {2, 2}}, new int[][]{{3, 5}});
 
     }
 
@@ -29,14 +29,14 @@ public class PieceMoveTest {
         System.out.println("");
 
         for (int[] ints : obstacle) {
-            chessBoard.placePiece(new RookChessPiece(false, chessBoard), ints[0], ints[1]);
+            chessBoard.placePiece(RookChessPiece.of(false), ints[0], ints[1]);
         }
 
         for (int[] ints : teammates) {
-            chessBoard.placePiece(new RookChessPiece(true, chessBoard), ints[0], ints[1]);
+            chessBoard.placePiece(RookChessPiece.of(true), ints[0], ints[1]);
         }
 
-        int[][] validFields = chessBoard.getPiece(x, y).getValidFields();
+        int[][] validFields = chessBoard.getValidFields(x, y);
         for (int[] validField : validFields) {
             System.out.println("  " + validField[0] + " | " + validField[1]);
         }
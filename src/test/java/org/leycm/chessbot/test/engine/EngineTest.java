@@ -0,0 +1,67 @@
+package org.leycm.chessbot.test.engine;
+
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Fen;
+import org.leycm.chessbot.chess.bitboard.Move;
+import org.leycm.chessbot.chess.bitboard.MoveGenerator;
+import org.leycm.chessbot.chess.bitboard.MoveList;
+import org.leycm.chessbot.engine.Engine;
+import org.leycm.chessbot.engine.SearchResult;
+import org.leycm.chessbot.engine.StaticExchange;
+
+public class EngineTest {
+    public static void main(String[] args) {
+        long timeMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+
+        String[][] mates = {
+                {"6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1", "a1a8"},
+                {"r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4", "h5f7"},
+                {"6k1/8/6K1/8/8/8/8/1Q6 w - - 0 1", "b1b8"},
+        };
+
+        Engine engine = new Engine();
+        boolean passed = true;
+
+        for (String[] mate : mates) {
+            BitboardPosition position = new BitboardPosition();
+            Fen.load(position, mate[0]);
+
+            SearchResult result = engine.search(position, timeMillis);
+            boolean ok = Move.toUci(result.bestMove()).equals(mate[1]);
+            passed &= ok;
+
+            System.out.println((ok ? "[OK] " : "[FAIL] expected " + mate[1] + ", ") + mate[0] + ": " + result);
+        }
+
+        String[][] exchanges = {
+                {"4k3/8/8/4p3/8/8/4R3/4RK2 w - - 0 1", "e2e5", "true"},
+                {"4k3/8/3p4/4p3/8/8/8/4RK2 w - - 0 1", "e1e5", "false"},
+                {"4k3/4r3/8/4p3/8/8/4R3/4RK2 w - - 0 1", "e2e5", "true"},
+                {"4k3/4r3/8/4p3/8/8/4R3/5K2 w - - 0 1", "e2e5", "false"},
+        };
+
+        for (String[] exchange : exchanges) {
+            BitboardPosition position = new BitboardPosition();
+            Fen.load(position, exchange[0]);
+
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegal(position, moves);
+            int move = Move.NONE;
+            for (int i = 0; i < moves.size(); i++) {
+                if (Move.toUci(moves.get(i)).equals(exchange[1])) move = moves.get(i);
+            }
+
+            boolean wins = StaticExchange.isAtLeast(position, move, 0);
+            boolean ok = wins == Boolean.parseBoolean(exchange[2]);
+            passed &= ok;
+
+            System.out.println((ok ? "[OK] " : "[FAIL] ") + exchange[0] + ": " + exchange[1] + (wins ? " does not lose" : " loses") + " material");
+        }
+
+        BitboardPosition start = new BitboardPosition();
+        Fen.load(start, Fen.START_POSITION);
+        System.out.println("start position: " + engine.search(start, timeMillis));
+
+        System.out.println(passed ? "All searches passed" : "Some searches failed");
+    }
+}
@@ -0,0 +1,83 @@
+package org.leycm.chessbot.test.model;
+
+import org.leycm.chessbot.chess.bitboard.BitboardPosition;
+import org.leycm.chessbot.chess.bitboard.Fen;
+import org.leycm.chessbot.chess.bitboard.MoveGenerator;
+import org.leycm.chessbot.chess.bitboard.MoveList;
+import org.leycm.chessbot.chess.bitboard.Piece;
+import org.leycm.chessbot.model.ChessModel;
+import org.leycm.chessbot.model.FirstLayerAccumulator;
+
+import java.util.Random;
+
+public class FirstLayerAccumulatorTest {
+
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        int plies = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        ChessModel model = new ChessModel();
+        FirstLayerAccumulator accumulator = new FirstLayerAccumulator(model);
+        FirstLayerAccumulator fresh = new FirstLayerAccumulator(model);
+
+        BitboardPosition position = new BitboardPosition();
+        Fen.load(position, Fen.START_POSITION);
+        accumulator.refresh(position);
+
+        Random random = new Random(seed);
+        MoveList moves = new MoveList();
+        double maxError = 0;
+        int played = 0;
+
+        // a random game forward, past the accumulator's initial stack size, then all the way back
+        for (; played < plies; played++) {
+            MoveGenerator.generateLegal(position, moves);
+            if (moves.isEmpty()) break;
+
+            if (played % 10 == 9) {
+                accumulator.makeNullMove(position);
+                maxError = Math.max(maxError, compare(accumulator, fresh, position));
+                accumulator.unmakeNullMove(position);
+            }
+            accumulator.makeMove(position, moves.get(random.nextInt(moves.size())));
+            maxError = Math.max(maxError, compare(accumulator, fresh, position));
+        }
+        double predictError = comparePredict(model, accumulator, position);
+
+        for (int ply = played; ply > 0; ply--) {
+            accumulator.unmakeMove(position);
+            maxError = Math.max(maxError, compare(accumulator, fresh, position));
+        }
+        predictError = Math.max(predictError, comparePredict(model, accumulator, position));
+
+        boolean passed = maxError <= EPSILON && predictError <= EPSILON;
+        System.out.printf("%d plies, largest difference to refresh() %.3g, to predict(int[]) %.3g%n", played, maxError, predictError);
+        System.out.println(passed ? "FirstLayerAccumulator: all sums match" : "FirstLayerAccumulator: sums DIFFER from a fresh computation");
+    }
+
+    private static double compare(FirstLayerAccumulator accumulator, FirstLayerAccumulator fresh, BitboardPosition position) {
+        fresh.refresh(position);
+        return maxDifference(accumulator.values(), fresh.values());
+    }
+
+    private static double comparePredict(ChessModel model, FirstLayerAccumulator accumulator, BitboardPosition position) {
+        int[] gameState = new int[65];
+        for (int square = 0; square < 64; square++) {
+            gameState[square] = Piece.signedLevel(position.pieceAt(square));
+        }
+        gameState[64] = position.isWhiteToMove() ? 1 : 0;
+
+        return maxDifference(model.predict(accumulator), model.predict(gameState));
+    }
+
+    private static double maxDifference(double[] a, double[] b) {
+        double max = 0;
+        for (int i = 0; i < a.length; i++) {
+            max = Math.max(max, Math.abs(a[i] - b[i]));
+        }
+        return max;
+    }
+
+}